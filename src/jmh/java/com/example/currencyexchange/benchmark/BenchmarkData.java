@@ -0,0 +1,43 @@
+package com.example.currencyexchange.benchmark;
+
+import com.example.currencyexchange.service.CurrencyService;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic currency fixtures shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Distinct three-letter codes: AAA, AAB, ... (up to 17,576)
+     */
+    static String[] codes(int count) {
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = code(i);
+        }
+        return codes;
+    }
+
+    /**
+     * The i-th three-letter code
+     */
+    static String code(int i) {
+        return new String(new char[] {
+                (char) ('A' + i / 676),
+                (char) ('A' + i / 26 % 26),
+                (char) ('A' + i % 26)
+        });
+    }
+
+    /**
+     * Track every code in the given service
+     */
+    static void populate(CurrencyService currencyService, String[] codes) {
+        currencyService.addCurrencies(Arrays.asList(codes));
+    }
+}
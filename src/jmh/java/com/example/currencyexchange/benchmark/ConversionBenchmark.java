@@ -0,0 +1,53 @@
+package com.example.currencyexchange.benchmark;
+
+import com.example.currencyexchange.dto.ConversionResponse;
+import com.example.currencyexchange.service.ConversionService;
+import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.RateMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConversionService.convertCurrency over a rotating set of currency pairs
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    @Param({"10", "200", "2000"})
+    int currencies;
+
+    @Param({"MATRIX", "TRIANGULATED"})
+    RateMode mode;
+
+    String[] codes;
+    ConversionService conversionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExchangeRateService exchangeRateService = new ExchangeRateService(mode, "AAA");
+        CurrencyService currencyService = new CurrencyService(exchangeRateService);
+        conversionService = new ConversionService(currencyService, exchangeRateService);
+        codes = BenchmarkData.codes(currencies);
+        BenchmarkData.populate(currencyService, codes);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public ConversionResponse convertCurrency(Cursor cursor) {
+        int i = cursor.next++;
+        String from = codes[Math.floorMod(i, codes.length)];
+        String to = codes[Math.floorMod(i * 31 + 7, codes.length)];
+        return conversionService.convertCurrency(100.0, from, to);
+    }
+}
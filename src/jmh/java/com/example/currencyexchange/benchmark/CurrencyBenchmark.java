@@ -0,0 +1,66 @@
+package com.example.currencyexchange.benchmark;
+
+import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ExchangeRateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CurrencyService.addCurrency and deleteCurrency against a tracked set of the given size.
+ * Each thread adds and removes its own extra currency, so the set size stays stable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurrencyBenchmark {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    @Param({"10", "200", "2000"})
+    int currencies;
+
+    CurrencyService currencyService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        currencyService = new CurrencyService(new ExchangeRateService());
+        BenchmarkData.populate(currencyService, BenchmarkData.codes(currencies));
+    }
+
+    @State(Scope.Thread)
+    public static class ExtraCurrency {
+        // Four letters, so it never collides with the three-letter fixtures
+        final String code = "X" + BenchmarkData.code(THREAD_IDS.getAndIncrement());
+    }
+
+    @State(Scope.Thread)
+    public static class Absent extends ExtraCurrency {
+        @TearDown(Level.Invocation)
+        public void remove(CurrencyBenchmark benchmark) {
+            benchmark.currencyService.deleteCurrency(code);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Present extends ExtraCurrency {
+        @Setup(Level.Invocation)
+        public void add(CurrencyBenchmark benchmark) {
+            benchmark.currencyService.addCurrency(code);
+        }
+    }
+
+    @Benchmark
+    public void addCurrency(Absent currency) {
+        currencyService.addCurrency(currency.code);
+    }
+
+    @Benchmark
+    public void deleteCurrency(Present currency) {
+        currencyService.deleteCurrency(currency.code);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.currencyexchange.benchmark;
+
+import com.example.currencyexchange.model.ExchangeRate;
+import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.RateMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate lookup and full rate listing on ExchangeRateService.
+ * The listing at 2,000 currencies materializes about four million pairs per call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExchangeRateBenchmark {
+
+    @Param({"10", "200", "2000"})
+    int currencies;
+
+    @Param({"MATRIX", "TRIANGULATED"})
+    RateMode mode;
+
+    String[] codes;
+    ExchangeRateService exchangeRateService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        exchangeRateService = new ExchangeRateService(mode, "AAA");
+        codes = BenchmarkData.codes(currencies);
+        BenchmarkData.populate(new CurrencyService(exchangeRateService), codes);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public double getExchangeRate(Cursor cursor) {
+        int i = cursor.next++;
+        String from = codes[Math.floorMod(i, codes.length)];
+        String to = codes[Math.floorMod(i * 31 + 7, codes.length)];
+        return exchangeRateService.getExchangeRate(from, to);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Map<String, ExchangeRate> getAllRates() {
+        return exchangeRateService.getAllRates();
+    }
+}
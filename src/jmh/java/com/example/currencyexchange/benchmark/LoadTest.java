@@ -0,0 +1,184 @@
+package com.example.currencyexchange.benchmark;
+
+import com.example.currencyexchange.CurrencyExchangeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * HTTP load test comparing request handling on platform threads with virtual threads.
+ *
+ * For each mode the application is started on a random port with
+ * {@code spring.threads.virtual.enabled} set accordingly, then a fixed number of
+ * closed-loop clients hit each endpoint for a warmup and a measurement period.
+ * Rate limiting and load shedding are switched off: every client shares one loopback
+ * address, and the point is to measure request handling rather than admission control.
+ * Reports throughput and p50/p99/max latency to stdout and target/loadtest-results.csv.
+ * Client and server share the JVM, so compare modes against each other rather than
+ * reading the numbers as absolute capacity.
+ *
+ * Settings (system properties): loadtest.clients (default 512), loadtest.warmup and
+ * loadtest.duration (ISO-8601, default PT5S and PT15S), loadtest.tomcat-threads (default 200).
+ */
+public final class LoadTest {
+
+    private static final String BATCH_BODY = batchBody(100);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would relaunch this class in a restart classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int clients = Integer.getInteger("loadtest.clients", 512);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT15S"));
+        String tomcatThreads = System.getProperty("loadtest.tomcat-threads", "200");
+
+        List<String> rows = new ArrayList<>();
+        rows.add("mode,endpoint,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+
+        for (boolean virtual : new boolean[] {false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyExchangeApplication.class)
+                    .run("--server.port=0",
+                         "--spring.threads.virtual.enabled=" + virtual,
+                         "--server.tomcat.threads.max=" + tomcatThreads,
+                         "--exchange.rate-limit.enabled=false",
+                         "--exchange.load-shedding.latency-threshold=0s",
+                         "--logging.level.root=WARN",
+                         "--logging.level.com.example.currencyexchange=WARN")) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String base = "http://localhost:" + port + "/api/v1/exchange";
+
+                Supplier<HttpRequest> convert = () -> HttpRequest.newBuilder(
+                        URI.create(base + "?amount=100&from=USD&to=EUR")).GET().build();
+                Supplier<HttpRequest> batch = () -> HttpRequest.newBuilder(URI.create(base + "/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(BATCH_BODY)).build();
+
+                rows.add(run(mode, "GET /api/v1/exchange", convert, clients, warmup, duration));
+                rows.add(run(mode, "POST /api/v1/exchange/batch", batch, clients, warmup, duration));
+            }
+        }
+
+        Path output = Path.of("target", "loadtest-results.csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, rows);
+        System.out.println("Results written to " + output);
+    }
+
+    private static String run(String mode, String endpoint, Supplier<HttpRequest> request, int clients,
+                              Duration warmup, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        drive(client, request, clients, warmup);
+        Result result = drive(client, request, clients, duration);
+
+        double seconds = duration.toNanos() / 1e9;
+        String row = String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.0f,%.2f,%.2f,%.2f",
+                mode, endpoint, clients, result.latencies.length, result.errors,
+                result.latencies.length / seconds,
+                percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                percentile(result.latencies, 1.0));
+        System.out.println(row);
+        return row;
+    }
+
+    /**
+     * Closed loop: every client sends its next request as soon as the previous one completes
+     */
+    private static Result drive(HttpClient client, Supplier<HttpRequest> request, int clients, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> futures = new ArrayList<>(clients);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(workers.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors++;
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+
+        long[] all = new long[0];
+        long errors = 0;
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + result.latencies.length);
+            System.arraycopy(result.latencies, 0, all, offset, result.latencies.length);
+            errors += result.errors;
+        }
+        Arrays.sort(all);
+        return new Result(all, errors);
+    }
+
+    /**
+     * Latency percentile in milliseconds from sorted nanosecond samples
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String batchBody(int items) {
+        StringBuilder body = new StringBuilder("[");
+        String[] codes = {"USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD"};
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"amount\":").append(i + 1)
+                .append(",\"from\":\"").append(codes[i % codes.length])
+                .append("\",\"to\":\"").append(codes[(i + 3) % codes.length]).append("\"}");
+        }
+        return body.append(']').toString();
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.currencyexchange.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to the first successful {@code GET /api/v1/exchange} of a freshly started
+ * application, for the plain JVM and each startup optimization of the {@code startup} profile:
+ * AOT-processed bean definitions, the AppCDS archive and the seed rate snapshot, and for the
+ * native executable when the native profile built one.
+ *
+ * Every run launches the application in a new process on a free port and polls the endpoint
+ * until it answers 200; a run counts from process launch, so JVM startup is included. The
+ * resident set size of the process is read right after that first conversion.
+ * Reports the median, min and max time and the median RSS per configuration to stdout and
+ * target/startup-results.csv.
+ *
+ * Settings (system properties): startup.jar, startup.cds-archive and startup.seed (set by the
+ * startup profile), startup.native (set by the native profile), startup.runs (default 5),
+ * startup.timeout (ISO-8601, default PT60S).
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = required("startup.jar");
+        Path archive = required("startup.cds-archive");
+        Path seed = required("startup.seed");
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.parse(System.getProperty("startup.timeout", "PT60S"));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String seedProperty = "-Dexchange.rates.snapshot.seed=file:" + seed;
+
+        List<Configuration> configurations = new ArrayList<>(List.of(
+            new Configuration("jvm", List.of(java, "-jar", jar.toString())),
+            new Configuration("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toString())),
+            new Configuration("aot+cds", List.of(java, "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive,
+                                                 "-jar", jar.toString())),
+            new Configuration("aot+cds+seed", List.of(java, "-Dspring.aot.enabled=true",
+                                                      "-XX:SharedArchiveFile=" + archive, seedProperty,
+                                                      "-jar", jar.toString()))));
+        Path executable = optional("startup.native");
+        if (executable != null && Files.isExecutable(executable)) {
+            // Native images are always AOT-processed and take system properties like a JVM
+            configurations.add(new Configuration("native", List.of(executable.toString())));
+            configurations.add(new Configuration("native+seed", List.of(executable.toString(), seedProperty)));
+        }
+
+        List<String> rows = new ArrayList<>();
+        rows.add("configuration,runs,median_ms,min_ms,max_ms,median_rss_mb");
+        for (Configuration configuration : configurations) {
+            // One unmeasured launch, so every configuration starts from a warm page cache
+            firstConversion(configuration, timeout);
+            long[] millis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                Sample sample = firstConversion(configuration, timeout);
+                millis[i] = sample.millis;
+                rssKb[i] = sample.rssKb;
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssKb);
+            String row = String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f", configuration.name, runs,
+                                       millis[runs / 2], millis[0], millis[runs - 1], rssKb[runs / 2] / 1024.0);
+            System.out.println(row);
+            rows.add(row);
+        }
+
+        Path output = Path.of("target", "startup-results.csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, rows);
+        System.out.println("Results written to " + output);
+    }
+
+    /**
+     * Launch the application and measure the time until a conversion succeeded, and the
+     * memory it then holds
+     */
+    private static Sample firstConversion(Configuration configuration, Duration timeout) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(configuration.command);
+        command.addAll(List.of("--server.port=" + port,
+                               "--logging.level.root=WARN", "--logging.level.com.example.currencyexchange=WARN"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/api/v1/exchange?amount=100&from=USD&to=EUR")).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(configuration.name + ": application exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        return new Sample(millis, residentSetKb(process.pid()));
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(configuration.name + ": no successful conversion within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Resident set size of a process in kilobytes, or -1 where /proc is not available
+     */
+    private static long residentSetKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux, or the process is already gone
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Path required(String property) {
+        Path value = optional(property);
+        if (value == null) {
+            throw new IllegalStateException(property + " is not set; run with mvn -Pbenchmark,startup -DskipTests verify");
+        }
+        return value;
+    }
+
+    private static Path optional(String property) {
+        String value = System.getProperty(property);
+        return value == null || value.isBlank() || value.startsWith("${") ? null : Path.of(value);
+    }
+
+    private record Configuration(String name, List<String> command) {
+    }
+
+    private record Sample(long millis, long rssKb) {
+    }
+}
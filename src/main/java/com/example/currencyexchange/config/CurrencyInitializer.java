@@ -1,23 +1,34 @@
 package com.example.currencyexchange.config;
 
 import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.RateSnapshotStore;
+import com.example.currencyexchange.service.RateWriteAheadLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 
 /**
- * Initializes default currencies on application startup
+ * Initializes default currencies on application startup, or restores the persisted
+ * rate snapshot (or a prebuilt seed snapshot) and replays the write-ahead log when they
+ * are configured and present.
+ *
+ * Runs once all singletons exist, before the web server starts, so no request is served
+ * from a half-recovered state and a failed recovery stops startup.
  */
 @Component
-public class CurrencyInitializer implements CommandLineRunner {
+public class CurrencyInitializer implements SmartInitializingSingleton {
 
     private static final Logger logger = LoggerFactory.getLogger(CurrencyInitializer.class);
     
     private final CurrencyService currencyService;
+    private final RateSnapshotStore rateSnapshotStore;
+    private final RateWriteAheadLog rateWriteAheadLog;
 
     // Default currencies to initialize
     private static final List<String> DEFAULT_CURRENCIES = Arrays.asList(
@@ -30,23 +41,41 @@ public class CurrencyInitializer implements CommandLineRunner {
         "AUD"  // Australian Dollar
     );
 
-    public CurrencyInitializer(CurrencyService currencyService) {
+    public CurrencyInitializer(CurrencyService currencyService,
+                               RateSnapshotStore rateSnapshotStore,
+                               RateWriteAheadLog rateWriteAheadLog) {
         this.currencyService = currencyService;
+        this.rateSnapshotStore = rateSnapshotStore;
+        this.rateWriteAheadLog = rateWriteAheadLog;
     }
 
     @Override
-    public void run(String... args) {
+    public void afterSingletonsInstantiated() {
+        // A persisted snapshot (or else the prebuilt seed) already holds the currencies and
+        // rates, so nothing needs to be generated. An unreadable snapshot file stops startup.
+        boolean restored = rateSnapshotStore.restore();
+        try {
+            // An unreadable log must stop startup, or changes it holds would be lost
+            restored |= rateWriteAheadLog.recover() > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover the rate log", e);
+        }
+        rateSnapshotStore.start();
+        if (restored) {
+            logger.info("Restored {} currencies from the rate snapshot", currencyService.getAllCurrencies().size());
+            return;
+        }
+
         logger.info("Initializing default currencies...");
-        
-        for (String currency : DEFAULT_CURRENCIES) {
-            try {
-                currencyService.addCurrency(currency);
-                logger.info("Added default currency: {}", currency);
-            } catch (Exception e) {
-                logger.error("Failed to add currency {}: {}", currency, e.getMessage());
-            }
+
+        // Added in one step so all default rates are generated in a single pass
+        try {
+            List<String> added = currencyService.addCurrencies(DEFAULT_CURRENCIES);
+            logger.info("Added default currencies: {}", added);
+        } catch (Exception e) {
+            logger.error("Failed to add default currencies {}: {}", DEFAULT_CURRENCIES, e.getMessage());
         }
-        
+
         logger.info("Default currencies initialized successfully. Total currencies: {}", 
                     currencyService.getAllCurrencies().size());
     }
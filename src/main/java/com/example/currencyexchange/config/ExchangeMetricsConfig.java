@@ -0,0 +1,64 @@
+package com.example.currencyexchange.config;
+
+import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.RateSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gauges describing the published rate snapshot, read from it only when scraped
+ */
+@Configuration
+public class ExchangeMetricsConfig {
+
+    @Bean
+    public MeterBinder rateSnapshotMetrics(ExchangeRateService exchangeRateService) {
+        RateCount rateCount = new RateCount();
+        return registry -> {
+            Gauge.builder("exchange.currencies", exchangeRateService, service -> service.getSnapshot().size())
+                .description("Tracked currencies")
+                .register(registry);
+            Gauge.builder("exchange.rates", exchangeRateService, service -> rateCount.of(service.getSnapshot()))
+                .description("Stored exchange rates")
+                .register(registry);
+            Gauge.builder("exchange.snapshot.version", exchangeRateService, service -> service.getSnapshot().version())
+                .description("Version of the published rate snapshot")
+                .register(registry);
+            TimeGauge.builder("exchange.snapshot.age", exchangeRateService, TimeUnit.NANOSECONDS,
+                              ExchangeRateService::snapshotAgeNanos)
+                .description("Time since the current rate snapshot was published")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Rate count of the latest snapshot seen, so scrapes between changes do not walk the rates again
+     */
+    private static final class RateCount {
+        // Concurrent scrapes wait out a whole walk; a monitor would pin a virtual scrape thread meanwhile
+        private final ReentrantLock lock = new ReentrantLock();
+        private long version = -1;
+        private long count;
+
+        long of(RateSnapshot snapshot) {
+            lock.lock();
+            try {
+                if (snapshot.version() != version) {
+                    long[] rates = {0};
+                    snapshot.forEachRate((from, to, rate) -> rates[0]++);
+                    count = rates[0];
+                    version = snapshot.version();
+                }
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.currencyexchange.config;
+
+import com.example.currencyexchange.dto.ResponseSerializers;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the reflection-free response serializers with the application's ObjectMapper
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module responseSerializers() {
+        return ResponseSerializers.module();
+    }
+}
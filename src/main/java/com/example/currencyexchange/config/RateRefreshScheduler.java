@@ -0,0 +1,49 @@
+package com.example.currencyexchange.config;
+
+import com.example.currencyexchange.model.RateRefreshResult;
+import com.example.currencyexchange.service.ExchangeRateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically refreshes exchange rates from the configured rate source.
+ * Enabled with {@code exchange.rates.refresh.enabled=true}.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "exchange.rates.refresh.enabled", havingValue = "true")
+public class RateRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateRefreshScheduler.class);
+
+    private final ExchangeRateService exchangeRateService;
+    private final List<String> currencies;
+
+    public RateRefreshScheduler(ExchangeRateService exchangeRateService,
+                                @Value("${exchange.rates.refresh.currencies:}") List<String> currencies) {
+        this.exchangeRateService = exchangeRateService;
+        this.currencies = currencies.stream().filter(code -> !code.isBlank()).toList();
+    }
+
+    @Scheduled(initialDelayString = "${exchange.rates.refresh.interval:PT60S}",
+               fixedDelayString = "${exchange.rates.refresh.interval:PT60S}")
+    public void refresh() {
+        try {
+            RateRefreshResult result = exchangeRateService.refreshRates(currencies);
+            logger.info("Refreshed {} rates in {} us (snapshot version {})",
+                        result.getRatesUpdated(),
+                        TimeUnit.NANOSECONDS.toMicros(result.getDurationNanos()),
+                        result.getVersion());
+        } catch (Exception e) {
+            logger.error("Rate refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.currencyexchange.config;
+
+import com.example.currencyexchange.service.FileRateSource;
+import com.example.currencyexchange.service.RandomRateSource;
+import com.example.currencyexchange.service.RateSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Selects where exchange rates come from: {@code random} (mock rates) or {@code file}
+ */
+@Configuration
+public class RateSourceConfig {
+
+    @Bean
+    public RateSource rateSource(@Value("${exchange.rates.source:random}") String source,
+                                 @Value("${exchange.rates.source-file:}") String file) {
+        switch (source.trim().toLowerCase()) {
+            case "random":
+                return new RandomRateSource();
+            case "file":
+                if (file.isBlank()) {
+                    throw new IllegalStateException("exchange.rates.source-file must be set for the file rate source");
+                }
+                return new FileRateSource(Path.of(file));
+            default:
+                throw new IllegalStateException("Unknown exchange.rates.source: " + source);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.dto.TokenResponse;
+import com.example.currencyexchange.security.TokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Token issuance, shared by the servlet and reactive variants since signing a token does not block
+ */
+@RestController
+@RequestMapping("/api/v1/auth")
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * POST /api/v1/auth/token - Exchange HTTP Basic credentials for a signed bearer token.
+     * Bearer tokens are not accepted here (see the token filter chains), so a token cannot renew itself.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(Authentication authentication) {
+        String token = tokenService.issue(authentication);
+        return ResponseEntity.ok(new TokenResponse(token, "Bearer", tokenService.getTtl().toSeconds()));
+    }
+}
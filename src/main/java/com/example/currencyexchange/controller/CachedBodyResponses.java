@@ -0,0 +1,116 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.service.ListingCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Writes pre-rendered listing bodies, gzipped when the client accepts it
+ */
+final class CachedBodyResponses {
+
+    private CachedBodyResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(ResponseEntity.BodyBuilder response, ListingCache.CachedBody body, WebRequest request) {
+        return of(response, body, negotiateGzip(request));
+    }
+
+    static ResponseEntity<byte[]> of(ResponseEntity.BodyBuilder response, ListingCache.CachedBody body, ServerWebExchange exchange) {
+        return of(response, body, negotiateGzip(exchange));
+    }
+
+    static ResponseEntity<byte[]> of(ResponseEntity.BodyBuilder response, ListingCache.CachedBody body, boolean gzip) {
+        response.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    /**
+     * Whether the client accepts a gzipped body. Marks the response as varying by
+     * Accept-Encoding first, so a 304 answered before the body is chosen carries it too.
+     */
+    static boolean negotiateGzip(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    static boolean negotiateGzip(ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return acceptsGzip(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Entity tag of the gzipped representation. The two encodings are different bytes, so
+     * they must not share a strong tag.
+     */
+    static String etag(String identityTag, boolean gzip) {
+        if (!gzip) {
+            return identityTag;
+        }
+        return identityTag.substring(0, identityTag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Version tag named by a {@code since} value, which may be an ETag of either encoding
+     * (quoted or not) or a rate feed event id. Null stays null.
+     */
+    static String versionTag(String since) {
+        if (since == null) {
+            return null;
+        }
+        String tag = since.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag.endsWith("-gzip") ? tag.substring(0, tag.length() - "-gzip".length()) : tag;
+    }
+
+    /**
+     * Reads an Accept-Encoding header by its q-values: gzip is used when listed, or covered
+     * by {@code *}, with a weight above zero. An explicit gzip entry wins over {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            double weight = weight(parts);
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, weight);
+            } else if (coding.equals("*")) {
+                wildcard = Math.max(wildcard, weight);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : wildcard > 0;
+    }
+
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    double weight = Double.parseDouble(parameter.substring(2).trim());
+                    return weight >= 0 && weight <= 1 ? weight : 0;
+                } catch (NumberFormatException e) {
+                    // A weight that cannot be read does not count as acceptance
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
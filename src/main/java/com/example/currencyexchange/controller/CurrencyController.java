@@ -2,30 +2,35 @@ package com.example.currencyexchange.controller;
 
 import com.example.currencyexchange.dto.CurrencyListResponse;
 import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ListingCache;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/currencies")
 public class CurrencyController {
 
     private final CurrencyService currencyService;
+    private final ListingCache listingCache;
 
-    public CurrencyController(CurrencyService currencyService) {
+    public CurrencyController(CurrencyService currencyService, ListingCache listingCache) {
         this.currencyService = currencyService;
+        this.listingCache = listingCache;
     }
 
     /**
-     * GET /api/v1/currencies - Retrieve all tracked currencies
+     * GET /api/v1/currencies - Retrieve all tracked currencies, rendered once per snapshot version
      */
     @GetMapping
-    public ResponseEntity<CurrencyListResponse> getCurrencies() {
-        List<String> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(new CurrencyListResponse(currencies));
+    public ResponseEntity<byte[]> getCurrencies(WebRequest request) {
+        return CachedBodyResponses.of(ResponseEntity.ok(), listingCache.currencies(), request);
     }
 
     /**
@@ -38,6 +43,16 @@ public class CurrencyController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /**
+     * POST /api/v1/currencies/bulk - Add a list of currencies in one step (ADMIN only)
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CurrencyListResponse> addCurrencies(@RequestBody List<String> currencies) {
+        List<String> added = currencyService.addCurrencies(currencies);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new CurrencyListResponse(added));
+    }
+
     /**
      * DELETE /api/v1/currencies/{code} - Delete a currency (ADMIN only)
      */
@@ -1,30 +1,102 @@
 package com.example.currencyexchange.controller;
 
-import com.example.currencyexchange.dto.ConversionResponse;
+import com.example.currencyexchange.dto.BatchConversionResponse;
+import com.example.currencyexchange.dto.ConversionRequest;
+import com.example.currencyexchange.dto.HotPairsResponse;
+import com.example.currencyexchange.dto.QuoteResponse;
 import com.example.currencyexchange.service.ConversionService;
+import com.example.currencyexchange.service.ExactConversionService;
+import com.example.currencyexchange.service.HotPairTracker;
+import com.example.currencyexchange.service.StreamingConversionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/exchange")
 public class ExchangeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ConversionService conversionService;
+    private final StreamingConversionService streamingConversionService;
+    private final ExactConversionService exactConversionService;
+    private final HotPairTracker hotPairTracker;
 
-    public ExchangeController(ConversionService conversionService) {
+    public ExchangeController(ConversionService conversionService,
+                              StreamingConversionService streamingConversionService,
+                              ExactConversionService exactConversionService,
+                              HotPairTracker hotPairTracker) {
         this.conversionService = conversionService;
+        this.streamingConversionService = streamingConversionService;
+        this.exactConversionService = exactConversionService;
+        this.hotPairTracker = hotPairTracker;
     }
 
     /**
-     * GET /api/v1/exchange?amount={amount}&from={from}&to={to} - Convert currency
+     * GET /api/v1/exchange?amount={amount}&from={from}&to={to} - Convert currency.
+     * In exact decimal mode the amounts and rate are returned as exact decimals.
      */
     @GetMapping
-    public ResponseEntity<ConversionResponse> convertCurrency(
-            @RequestParam("amount") double amount,
+    public ResponseEntity<?> convertCurrency(
+            @RequestParam("amount") BigDecimal amount,
             @RequestParam("from") String from,
             @RequestParam("to") String to) {
-        
-        ConversionResponse response = conversionService.convertCurrency(amount, from, to);
-        return ResponseEntity.ok(response);
+
+        if (exactConversionService.isEnabled()) {
+            return ResponseEntity.ok(exactConversionService.convertCurrency(amount, from, to));
+        }
+        return ResponseEntity.ok(conversionService.convertCurrency(amount.doubleValue(), from, to));
+    }
+
+    /**
+     * GET /api/v1/exchange/quote?amount={amount}&from={from}&to={to1,to2,...} - Convert one amount
+     * into several currencies, or into all tracked currencies when {@code to} is omitted.
+     * Rejected in exact decimal mode, like batches and streams.
+     */
+    @GetMapping("/quote")
+    public ResponseEntity<QuoteResponse> quote(
+            @RequestParam("amount") double amount,
+            @RequestParam("from") String from,
+            @RequestParam(value = "to", required = false) List<String> to) {
+        exactConversionService.rejectIfEnabled("Quoting");
+        return ResponseEntity.ok(conversionService.quote(amount, from, to));
+    }
+
+    /**
+     * GET /api/v1/exchange/hot-pairs?limit={n} - Most converted pairs over the recent window (ADMIN only)
+     */
+    @GetMapping("/hot-pairs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HotPairsResponse> hotPairs(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hotPairTracker.top(limit));
+    }
+
+    /**
+     * POST /api/v1/exchange/batch - Convert a list of {amount, from, to} items in one request
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchConversionResponse> convertBatch(@RequestBody List<ConversionRequest> requests) {
+        exactConversionService.rejectIfEnabled("Batch conversion");
+        return ResponseEntity.ok(new BatchConversionResponse(conversionService.convertBatch(requests)));
+    }
+
+    /**
+     * POST /api/v1/exchange/stream - Convert newline-delimited JSON items, streaming one result line per item
+     */
+    @PostMapping(value = "/stream", consumes = NDJSON, produces = NDJSON)
+    public void convertStream(InputStream body, HttpServletResponse response) throws IOException {
+        exactConversionService.rejectIfEnabled("Streaming conversion");
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        streamingConversionService.convertStream(body, response.getOutputStream());
     }
 }
@@ -1,41 +1,98 @@
 package com.example.currencyexchange.controller;
 
-import com.example.currencyexchange.dto.ExchangeRateResponse;
-import com.example.currencyexchange.dto.ExchangeRatesListResponse;
+import com.example.currencyexchange.exception.InvalidRequestException;
 import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.ListingCache;
+import com.example.currencyexchange.service.RateChangeFeed;
+import com.example.currencyexchange.service.RateQueryService;
+import com.example.currencyexchange.service.RateSnapshot;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/rates")
 public class ExchangeRateController {
 
     private final ExchangeRateService exchangeRateService;
+    private final RateChangeFeed rateChangeFeed;
+    private final ListingCache listingCache;
+    private final RateQueryService rateQueryService;
 
-    public ExchangeRateController(ExchangeRateService exchangeRateService) {
+    public ExchangeRateController(ExchangeRateService exchangeRateService,
+                                  RateChangeFeed rateChangeFeed,
+                                  ListingCache listingCache,
+                                  RateQueryService rateQueryService) {
         this.exchangeRateService = exchangeRateService;
+        this.rateChangeFeed = rateChangeFeed;
+        this.listingCache = listingCache;
+        this.rateQueryService = rateQueryService;
     }
 
     /**
-     * GET /api/v1/rates - Retrieve all exchange rates
+     * GET /api/v1/rates - Retrieve all exchange rates, or with {@code since} only the
+     * pairs changed after the version named by that ETag or event id; the full listing
+     * when it was issued by another instance or process. {@code from} (or its alias {@code base}),
+     * {@code to}, {@code limit} and {@code cursor} select one page of a row, a column or
+     * the whole matrix instead. Responses carry an ETag derived from the snapshot version,
+     * with a suffix for the gzipped listing; a matching If-None-Match yields 304 without
+     * building the body. The full listing is rendered once per snapshot version and served
+     * from cache.
      */
     @GetMapping
-    public ResponseEntity<ExchangeRatesListResponse> getAllExchangeRates() {
-        List<ExchangeRateResponse> rates = exchangeRateService.getAllRates()
-                .values()
-                .stream()
-                .map(rate -> new ExchangeRateResponse(
-                        rate.getFromCurrency(),
-                        rate.getToCurrency(),
-                        rate.getRate()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(new ExchangeRatesListResponse(rates));
+    public ResponseEntity<?> getAllExchangeRates(@RequestParam(required = false) String since,
+                                                 @RequestParam(required = false) String from,
+                                                 @RequestParam(required = false) String to,
+                                                 @RequestParam(required = false) String base,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String cursor,
+                                                 WebRequest request) {
+        if (base != null && from != null && !base.equalsIgnoreCase(from)) {
+            throw new InvalidRequestException("base and from must name the same currency");
+        }
+        String fromCurrency = from != null ? from : base;
+        boolean filtered = fromCurrency != null || to != null || limit != null || cursor != null;
+        if (filtered && since != null) {
+            throw new InvalidRequestException("since cannot be combined with filters or paging");
+        }
+
+        // Read straight from the published snapshot instead of copying the rate store
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        boolean acceptsGzip = CachedBodyResponses.negotiateGzip(request);
+        boolean gzip = acceptsGzip && since == null && !filtered;
+        if (request.checkNotModified(CachedBodyResponses.etag(exchangeRateService.etagFor(snapshot), gzip))) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (since != null) {
+            long sinceVersion = exchangeRateService.versionOf(CachedBodyResponses.versionTag(since));
+            return response.body(RateChangeFeed.changesSince(snapshot, sinceVersion));
+        }
+        if (filtered) {
+            return response.body(rateQueryService.query(snapshot, fromCurrency, to, limit, cursor));
+        }
+        return CachedBodyResponses.of(response, listingCache.rates(snapshot), gzip);
+    }
+
+    /**
+     * GET /api/v1/rates/stream - Server-sent events carrying the pairs changed since
+     * the client's last version. Resumes from {@code since}, or from the Last-Event-ID
+     * header a reconnecting client sends automatically; both are event ids, which name
+     * the instance as well as the version.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRateChanges(@RequestParam(required = false) String since,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return rateChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
     }
 }
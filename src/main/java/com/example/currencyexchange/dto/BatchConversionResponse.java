@@ -0,0 +1,14 @@
+package com.example.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchConversionResponse {
+    private List<BatchConversionResult> results;
+}
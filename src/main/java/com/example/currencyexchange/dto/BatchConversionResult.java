@@ -0,0 +1,26 @@
+package com.example.currencyexchange.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch item: either a conversion or the error that rejected it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchConversionResult {
+    private ConversionResponse result;
+    private ErrorResponse error;
+
+    public static BatchConversionResult success(ConversionResponse result) {
+        return new BatchConversionResult(result, null);
+    }
+
+    public static BatchConversionResult failure(String message, int status) {
+        return new BatchConversionResult(null, new ErrorResponse(message, status));
+    }
+}
@@ -1,14 +1,6 @@
 package com.example.currencyexchange.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
 import java.util.List;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class CurrencyListResponse {
-    private List<String> currencies;
+public record CurrencyListResponse(List<String> currencies) {
 }
@@ -1,13 +1,4 @@
 package com.example.currencyexchange.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class ErrorResponse {
-    private String message;
-    private int status;
+public record ErrorResponse(String message, int status) {
 }
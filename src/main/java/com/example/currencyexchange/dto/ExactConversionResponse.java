@@ -0,0 +1,22 @@
+package com.example.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversion result in exact decimal mode. Same fields as {@link ConversionResponse};
+ * amounts carry the minor units of their currency and the rate its fixed scale.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExactConversionResponse {
+    private BigDecimal amount;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal convertedAmount;
+    private BigDecimal rate;
+}
@@ -0,0 +1,20 @@
+package com.example.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Most converted pairs over the last {@code windowSeconds}. Counts are sketch estimates
+ * and may slightly overcount; {@code conversions} is the exact total in the window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotPairsResponse {
+    private long windowSeconds;
+    private long conversions;
+    private List<HotPairResponse> pairs;
+}
@@ -0,0 +1,23 @@
+package com.example.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rates that changed between two snapshot versions. When {@code full} is true the
+ * client's version could not be diffed against and {@code rates} is the complete
+ * listing, replacing whatever the client held.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateChangesResponse {
+    private long version;
+    private long sinceVersion;
+    private boolean full;
+    private List<String> removedCurrencies;
+    private List<ExchangeRateResponse> rates;
+}
@@ -0,0 +1,21 @@
+package com.example.currencyexchange.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a filtered rate query. {@code nextCursor} is absent on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RatePageResponse {
+    private long version;
+    private List<ExchangeRateResponse> rates;
+    private String nextCursor;
+}
@@ -0,0 +1,105 @@
+package com.example.currencyexchange.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Hand-written Jackson serializers for the most frequent responses.
+ *
+ * Jackson finds these by type and never introspects the records, so the responses
+ * serialize without runtime reflection, which a native image would otherwise need
+ * metadata for. Output matches what Jackson writes for the record components.
+ */
+public final class ResponseSerializers {
+
+    private ResponseSerializers() {
+    }
+
+    /**
+     * Module registering every serializer of this class
+     */
+    public static Module module() {
+        return new SimpleModule("ResponseSerializers")
+            .addSerializer(new ConversionResponseSerializer())
+            .addSerializer(new CurrencyListResponseSerializer())
+            .addSerializer(new ErrorResponseSerializer())
+            .addSerializer(new ExchangeRateResponseSerializer());
+    }
+
+    static final class ConversionResponseSerializer extends StdSerializer<ConversionResponse> {
+        ConversionResponseSerializer() {
+            super(ConversionResponse.class);
+        }
+
+        @Override
+        public void serialize(ConversionResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeNumberField("amount", value.amount());
+            generator.writeStringField("fromCurrency", value.fromCurrency());
+            generator.writeStringField("toCurrency", value.toCurrency());
+            generator.writeNumberField("convertedAmount", value.convertedAmount());
+            generator.writeNumberField("rate", value.rate());
+            generator.writeEndObject();
+        }
+    }
+
+    static final class CurrencyListResponseSerializer extends StdSerializer<CurrencyListResponse> {
+        CurrencyListResponseSerializer() {
+            super(CurrencyListResponse.class);
+        }
+
+        @Override
+        public void serialize(CurrencyListResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName("currencies");
+            if (value.currencies() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray(value.currencies(), value.currencies().size());
+                for (String code : value.currencies()) {
+                    generator.writeString(code);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    static final class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+        ErrorResponseSerializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(ErrorResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeStringField("message", value.message());
+            generator.writeNumberField("status", value.status());
+            generator.writeEndObject();
+        }
+    }
+
+    static final class ExchangeRateResponseSerializer extends StdSerializer<ExchangeRateResponse> {
+        ExchangeRateResponseSerializer() {
+            super(ExchangeRateResponse.class);
+        }
+
+        @Override
+        public void serialize(ExchangeRateResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeStringField("fromCurrency", value.fromCurrency());
+            generator.writeStringField("toCurrency", value.toCurrency());
+            generator.writeNumberField("rate", value.rate());
+            generator.writeEndObject();
+        }
+    }
+}
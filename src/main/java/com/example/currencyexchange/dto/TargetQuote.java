@@ -0,0 +1,14 @@
+package com.example.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetQuote {
+    private String toCurrency;
+    private double convertedAmount;
+    private double rate;
+}
@@ -0,0 +1,20 @@
+package com.example.currencyexchange.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one rate refresh
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateRefreshResult {
+    private long version;
+    private int ratesUpdated;
+    private long durationNanos;
+    private Instant completedAt;
+}
@@ -0,0 +1,187 @@
+package com.example.currencyexchange.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the public endpoints: a token bucket per client and endpoint,
+ * and load shedding per endpoint once its latency degrades.
+ *
+ * Each configured endpoint is isolated from the others, so a client hammering the rate
+ * listing is throttled and shed on that endpoint alone while conversions keep their
+ * latency. Buckets are kept as a single theoretical arrival time per client (GCRA), so
+ * taking a token is one compare-and-set. Fully refilled buckets are dropped once more
+ * than {@code maxClients} are tracked. Registered by the servlet and reactive security
+ * configurations.
+ */
+public class AdmissionControl {
+
+    private final Map<String, Endpoint> endpoints;
+    private final int maxClients;
+    private final long latencyThresholdNanos;
+    private final int minConcurrency;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param limits             per endpoint {@code path:permitsPerSecond:burst}, comma separated
+     * @param maxClients         tracked clients per endpoint before idle ones are dropped
+     * @param latencyThreshold   average latency past which an endpoint sheds load, zero disables shedding
+     * @param minConcurrency     requests an overloaded endpoint still admits concurrently
+     */
+    public AdmissionControl(String limits, int maxClients, Duration latencyThreshold, int minConcurrency,
+                            LongSupplier nanoClock) {
+        this.maxClients = maxClients;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.minConcurrency = minConcurrency;
+        this.nanoClock = nanoClock;
+        this.endpoints = parse(limits);
+    }
+
+    @Autowired
+    public AdmissionControl(@Value("${exchange.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${exchange.rate-limit.endpoints:}") String limits,
+                            @Value("${exchange.rate-limit.max-clients:100000}") int maxClients,
+                            @Value("${exchange.load-shedding.latency-threshold:PT1S}") Duration latencyThreshold,
+                            @Value("${exchange.load-shedding.min-concurrency:8}") int minConcurrency) {
+        this(enabled ? limits : "", maxClients, latencyThreshold, minConcurrency, System::nanoTime);
+    }
+
+    /**
+     * The limited endpoint serving a request path, or null when the path is not limited
+     */
+    public Endpoint endpoint(String path) {
+        return endpoints.isEmpty() ? null : endpoints.get(path);
+    }
+
+    private Map<String, Endpoint> parse(String limits) {
+        Map<String, Endpoint> parsed = new HashMap<>();
+        for (String entry : limits.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            try {
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException();
+                }
+                double permitsPerSecond = Double.parseDouble(parts[1]);
+                int burst = Integer.parseInt(parts[2]);
+                if (permitsPerSecond <= 0 || burst < 1) {
+                    throw new IllegalArgumentException();
+                }
+                parsed.put(parts[0], new Endpoint(parts[0], permitsPerSecond, burst));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Invalid exchange.rate-limit.endpoints entry: " + entry);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+
+    /**
+     * Buckets and load of one limited endpoint
+     */
+    public final class Endpoint {
+        private final String path;
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final ConcurrentMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+        private final ReentrantLock sweepLock = new ReentrantLock();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // Moving average of completed request latency, updated without locking
+        private volatile long latencyNanos;
+
+        private Endpoint(String path, double permitsPerSecond, int burst) {
+            this.path = path;
+            this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+            this.capacityNanos = intervalNanos * burst;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        /**
+         * Take a token for the client. Returns 0 when granted, otherwise the nanoseconds
+         * until the next token is available.
+         */
+        public long tryAcquire(String client) {
+            long now = nanoClock.getAsLong();
+            AtomicLong arrival = clients.get(client);
+            if (arrival == null) {
+                if (clients.size() >= maxClients && !sweep(now)) {
+                    // Every tracked client is active; admit newcomers rather than refuse them blindly
+                    return 0;
+                }
+                arrival = clients.computeIfAbsent(client, c -> new AtomicLong(Long.MIN_VALUE));
+            }
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - capacityNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Drop clients whose bucket has refilled completely; they are indistinguishable
+         * from new ones. Returns whether there is room for another client.
+         */
+        private boolean sweep(long now) {
+            if (sweepLock.tryLock()) {
+                try {
+                    clients.entrySet().removeIf(client -> client.getValue().get() <= now);
+                } finally {
+                    sweepLock.unlock();
+                }
+            }
+            return clients.size() < maxClients;
+        }
+
+        /**
+         * Start a request unless the endpoint is overloaded: its average latency is over
+         * the threshold and it already serves the minimum concurrency. Admitted requests
+         * must be passed to {@link #exit}.
+         */
+        public boolean enter() {
+            int running = inFlight.incrementAndGet();
+            if (latencyThresholdNanos > 0 && running > minConcurrency && latencyNanos > latencyThresholdNanos) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Finish an admitted request that took {@code elapsedNanos}
+         */
+        public void exit(long elapsedNanos) {
+            inFlight.decrementAndGet();
+            // Weight 1/8 per request; a lost update under contention only skips one sample
+            long average = latencyNanos;
+            latencyNanos = average + ((elapsedNanos - average) >> 3);
+        }
+
+        int trackedClients() {
+            return clients.size();
+        }
+
+        long averageLatencyNanos() {
+            return latencyNanos;
+        }
+    }
+}
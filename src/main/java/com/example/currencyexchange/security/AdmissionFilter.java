@@ -0,0 +1,92 @@
+package com.example.currencyexchange.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies {@link AdmissionControl} to servlet requests: 429 when the client is over its
+ * rate, 503 when the endpoint is shedding load. Runs after authentication, so signed-in
+ * clients are limited by user name and everyone else by address.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.Endpoint endpoint = admissionControl.endpoint(request.getRequestURI());
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long wait = endpoint.tryAcquire(clientKey(SecurityContextHolder.getContext().getAuthentication(),
+                                                  request.getRemoteAddr()));
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(wait), "Rate limit exceeded");
+            return;
+        }
+        if (!endpoint.enter()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Service overloaded");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            endpoint.exit(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Key a client by its user name when authenticated, by address otherwise
+     */
+    static String clientKey(Authentication authentication, String remoteAddress) {
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + remoteAddress;
+    }
+
+    /**
+     * Whole seconds to wait before retrying, at least one
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Error body in the shape of {@link com.example.currencyexchange.dto.ErrorResponse}
+     */
+    static byte[] errorBody(HttpStatus status, String message) {
+        return ("{\"message\":\"" + message + "\",\"status\":" + status.value() + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfter, String message)
+            throws IOException {
+        byte[] body = errorBody(status, message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
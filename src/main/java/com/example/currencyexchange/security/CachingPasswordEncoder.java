@@ -0,0 +1,82 @@
+package com.example.currencyexchange.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers successful password checks so repeated HTTP Basic logins skip the
+ * deliberately slow delegate (BCrypt). Only matches are cached, keyed by the stored
+ * hash and holding a salted SHA-256 of the raw password, never the password itself.
+ * Changing a password changes the stored hash, which retires the old entry.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final byte[] salt = new byte[16];
+    private final Map<String, byte[]> verified;
+
+    /**
+     * @param maxEntries number of stored hashes remembered, least recently used first out
+     */
+    public CachingPasswordEncoder(PasswordEncoder delegate, int maxEntries) {
+        this.delegate = delegate;
+        new SecureRandom().nextBytes(salt);
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        byte[] digest = digest(rawPassword);
+        byte[] known;
+        synchronized (verified) {
+            known = verified.get(encodedPassword);
+        }
+        if (known != null && MessageDigest.isEqual(known, digest)) {
+            return true;
+        }
+
+        // Slow path outside the lock so concurrent logins are not serialized behind it
+        if (!delegate.matches(rawPassword, encodedPassword)) {
+            return false;
+        }
+        synchronized (verified) {
+            verified.put(encodedPassword, digest);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private byte[] digest(CharSequence rawPassword) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(salt);
+            return sha256.digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
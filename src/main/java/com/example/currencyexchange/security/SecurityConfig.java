@@ -1,7 +1,11 @@
 package com.example.currencyexchange.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,55 +16,102 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
+@Import(AdmissionControl.class)
 public class SecurityConfig {
 
+    /**
+     * Tokens are only issued for HTTP Basic credentials. The bearer filter is left out of
+     * this chain, so a token can never be exchanged for a fresh one and outlive its ttl.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain tokenFilterChain(HttpSecurity http, AdmissionControl admissionControl) throws Exception {
+        http
+            .securityMatcher("/api/v1/auth/token")
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .httpBasic(httpBasic -> {})
+            .addFilterAfter(new AdmissionFilter(admissionControl), BasicAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   AdmissionControl admissionControl) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/v1/currencies").permitAll()
                 .requestMatchers("/api/v1/exchange").permitAll()
+                .requestMatchers("/api/v1/exchange/quote").permitAll()
+                .requestMatchers("/api/v1/exchange/batch").permitAll()
+                .requestMatchers("/api/v1/exchange/stream").permitAll()
                 .requestMatchers("/api/v1/rates").permitAll()
+                .requestMatchers("/api/v1/rates/stream").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 .anyRequest().authenticated()
             )
-            .httpBasic(httpBasic -> {});
-        
+            .httpBasic(httpBasic -> {})
+            .addFilterBefore(new BearerTokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
+            .addFilterAfter(new AdmissionFilter(admissionControl), BasicAuthenticationFilter.class);
+
         return http.build();
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
+        return new InMemoryUserDetailsManager(users(passwordEncoder()));
+    }
+
+    /**
+     * In-memory users shared by the servlet and reactive configurations
+     */
+    static UserDetails[] users(PasswordEncoder passwordEncoder) {
         // Create ADMIN user
         UserDetails admin = User.builder()
             .username("admin")
-            .password(passwordEncoder().encode("admin123"))
+            .password(passwordEncoder.encode("admin123"))
             .roles("ADMIN")
             .build();
 
         // Create regular USER
         UserDetails user = User.builder()
             .username("user")
-            .password(passwordEncoder().encode("user123"))
+            .password(passwordEncoder.encode("user123"))
             .roles("USER")
             .build();
 
-        return new InMemoryUserDetailsManager(admin, user);
+        return new UserDetails[] {admin, user};
     }
 
+    /**
+     * BCrypt, with successful checks remembered so repeated Basic logins stay cheap
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), 1024);
+    }
+
+    @Bean
+    public TokenService tokenService(@Value("${exchange.security.token.secret:}") String secret,
+                                     @Value("${exchange.security.token.ttl:PT1H}") Duration ttl) {
+        return new TokenService(secret, ttl, Clock.systemUTC());
     }
 
     @Bean
@@ -1,46 +1,242 @@
 package com.example.currencyexchange.service;
 
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ConversionRequest;
 import com.example.currencyexchange.dto.ConversionResponse;
+import com.example.currencyexchange.dto.QuoteResponse;
+import com.example.currencyexchange.dto.TargetQuote;
 import com.example.currencyexchange.exception.CurrencyNotFoundException;
 import com.example.currencyexchange.exception.InvalidAmountException;
+import com.example.currencyexchange.exception.InvalidCurrencyException;
+import com.example.currencyexchange.exception.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 public class ConversionService {
 
+    // Upper bound on items per batch request
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     private final CurrencyService currencyService;
     private final ExchangeRateService exchangeRateService;
+    private final ExchangeMetrics metrics;
+    private final HotPairTracker hotPairs;
 
     public ConversionService(CurrencyService currencyService, ExchangeRateService exchangeRateService) {
+        this(currencyService, exchangeRateService, ExchangeMetrics.NONE);
+    }
+
+    public ConversionService(CurrencyService currencyService, ExchangeRateService exchangeRateService,
+                             ExchangeMetrics metrics) {
+        this(currencyService, exchangeRateService, metrics, HotPairTracker.NONE);
+    }
+
+    @Autowired
+    public ConversionService(CurrencyService currencyService, ExchangeRateService exchangeRateService,
+                             ExchangeMetrics metrics, HotPairTracker hotPairs) {
         this.currencyService = currencyService;
         this.exchangeRateService = exchangeRateService;
+        this.metrics = metrics;
+        this.hotPairs = hotPairs;
     }
 
     /**
      * Convert an amount from one currency to another
      */
     public ConversionResponse convertCurrency(double amount, String fromCurrency, String toCurrency) {
-        // Validate amount
+        long start = metrics.start();
+        try {
+            // Validate amount
+            validateAmount(amount);
+
+            // Validate currencies exist. Both lookups and the rate come from one snapshot,
+            // so a concurrent currency change cannot be observed halfway through.
+            String fromCode = fromCurrency.toUpperCase();
+            String toCode = toCurrency.toUpperCase();
+            RateSnapshot snapshot = exchangeRateService.getSnapshot();
+
+            int fromId = resolve(snapshot, fromCode);
+            int toId = resolve(snapshot, toCode);
+
+            ConversionResponse response = convert(snapshot, amount, fromId, toId);
+            recordPair(snapshot, fromId, toId);
+            return response;
+        } catch (RuntimeException e) {
+            metrics.error(ExchangeMetrics.Operation.CONVERT, e);
+            throw e;
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.CONVERT, start);
+        }
+    }
+
+    /**
+     * Convert one amount into several target currencies, or into every other tracked
+     * currency when {@code toCurrencies} is null or empty. The source is resolved once
+     * and all rates are read from its row of a single snapshot. Explicit targets are
+     * quoted in request order without duplicates; when quoting all, pairs without a
+     * rate are left out. Each explicit target counts as a conversion of that pair;
+     * quoting all targets is only timed as a quote, so it cannot flood the pair counts.
+     */
+    public QuoteResponse quote(double amount, String fromCurrency, List<String> toCurrencies) {
+        long start = metrics.start();
+        try {
+            validateAmount(amount);
+
+            RateSnapshot snapshot = exchangeRateService.getSnapshot();
+            int fromId = resolve(snapshot, fromCurrency.toUpperCase());
+            List<TargetQuote> quotes;
+
+            if (toCurrencies == null || toCurrencies.isEmpty()) {
+                quotes = new ArrayList<>(snapshot.size());
+                for (int toId = 0; toId < snapshot.idLimit(); toId++) {
+                    double rate = snapshot.rate(fromId, toId);
+                    if (toId != fromId && snapshot.codeAt(toId) != null && !Double.isNaN(rate)) {
+                        quotes.add(new TargetQuote(snapshot.codeAt(toId), amount * rate, rate));
+                    }
+                }
+            } else {
+                // Validate every target before quoting any
+                Set<String> targets = new LinkedHashSet<>();
+                for (String toCurrency : toCurrencies) {
+                    if (toCurrency == null || toCurrency.isBlank()) {
+                        throw new InvalidCurrencyException("Currency code cannot be empty");
+                    }
+                    targets.add(toCurrency.trim().toUpperCase());
+                }
+                int[] toIds = new int[targets.size()];
+                int n = 0;
+                for (String code : targets) {
+                    toIds[n++] = resolve(snapshot, code);
+                }
+                quotes = new ArrayList<>(toIds.length);
+                for (int toId : toIds) {
+                    ConversionResponse converted = convert(snapshot, amount, fromId, toId);
+                    quotes.add(new TargetQuote(converted.toCurrency(), converted.convertedAmount(), converted.rate()));
+                }
+                // Recorded once the whole quote succeeded, like a single conversion
+                for (int toId : toIds) {
+                    recordPair(snapshot, fromId, toId);
+                }
+            }
+
+            return new QuoteResponse(amount, snapshot.codeAt(fromId), quotes);
+        } catch (RuntimeException e) {
+            metrics.error(ExchangeMetrics.Operation.QUOTE, e);
+            throw e;
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.QUOTE, start);
+        }
+    }
+
+    /**
+     * Convert many amounts against a single rate snapshot. Results are returned in
+     * request order; an invalid item yields an error entry instead of failing the batch.
+     */
+    public List<BatchConversionResult> convertBatch(List<ConversionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch cannot be empty");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch cannot contain more than " + MAX_BATCH_SIZE + " items");
+        }
+
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        Map<String, Integer> ids = new HashMap<>();
+        List<BatchConversionResult> results = new ArrayList<>(requests.size());
+
+        for (ConversionRequest request : requests) {
+            results.add(convertItem(snapshot, ids, request));
+        }
+        return results;
+    }
+
+    /**
+     * Convert one batch or stream item against the given snapshot. {@code ids} caches
+     * normalized currency codes resolved to snapshot ids across items;
+     * only tracked codes are cached, so its size is bounded by the currency count.
+     * Each item is timed and counted like a single conversion, including failed ones.
+     */
+    public BatchConversionResult convertItem(RateSnapshot snapshot, Map<String, Integer> ids, ConversionRequest request) {
+        long start = metrics.start();
+        try {
+            if (request == null || request.getAmount() == null) {
+                throw new InvalidAmountException("Amount is required");
+            }
+            validateAmount(request.getAmount());
+            int fromId = resolve(snapshot, ids, request.getFrom());
+            int toId = resolve(snapshot, ids, request.getTo());
+            ConversionResponse response = convert(snapshot, request.getAmount(), fromId, toId);
+            recordPair(snapshot, fromId, toId);
+            return BatchConversionResult.success(response);
+        } catch (InvalidAmountException | InvalidCurrencyException e) {
+            metrics.error(ExchangeMetrics.Operation.CONVERT, e);
+            return BatchConversionResult.failure(e.getMessage(), HttpStatus.BAD_REQUEST.value());
+        } catch (CurrencyNotFoundException e) {
+            metrics.error(ExchangeMetrics.Operation.CONVERT, e);
+            return BatchConversionResult.failure(e.getMessage(), HttpStatus.NOT_FOUND.value());
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.CONVERT, start);
+        }
+    }
+
+    /**
+     * Count a successful conversion of a pair in the metrics and the hot pairs
+     */
+    private void recordPair(RateSnapshot snapshot, int fromId, int toId) {
+        String fromCode = snapshot.codeAt(fromId);
+        String toCode = snapshot.codeAt(toId);
+        metrics.pairHit(fromCode, toCode);
+        hotPairs.record(fromCode, toCode);
+    }
+
+    private void validateAmount(double amount) {
         if (amount < 0) {
             throw new InvalidAmountException("Amount cannot be negative");
         }
+    }
 
-        // Validate currencies exist
-        String fromCode = fromCurrency.toUpperCase();
-        String toCode = toCurrency.toUpperCase();
-
-        if (!currencyService.isCurrencyTracked(fromCode)) {
-            throw new CurrencyNotFoundException("Currency not supported: " + fromCode);
+    private int resolve(RateSnapshot snapshot, Map<String, Integer> ids, String currency) {
+        if (currency == null || currency.isBlank()) {
+            throw new InvalidCurrencyException("Currency code cannot be empty");
+        }
+        // Keyed by the normalized code, so "usd" and "USD" share one entry
+        String code = currency.toUpperCase();
+        Integer cached = ids.get(code);
+        if (cached != null) {
+            return cached;
         }
+        int id = resolve(snapshot, code);
+        ids.put(code, id);
+        return id;
+    }
 
-        if (!currencyService.isCurrencyTracked(toCode)) {
-            throw new CurrencyNotFoundException("Currency not supported: " + toCode);
+    private int resolve(RateSnapshot snapshot, String code) {
+        int id = snapshot.indexOf(code);
+        if (id < 0) {
+            throw new CurrencyNotFoundException("Currency not supported: " + code);
         }
+        return id;
+    }
 
+    private ConversionResponse convert(RateSnapshot snapshot, double amount, int fromId, int toId) {
         // Get exchange rate and calculate conversion
-        double rate = exchangeRateService.getExchangeRate(fromCode, toCode);
+        double rate = snapshot.rate(fromId, toId);
+        if (Double.isNaN(rate)) {
+            throw new CurrencyNotFoundException(
+                String.format("Exchange rate not found for %s to %s", snapshot.codeAt(fromId), snapshot.codeAt(toId))
+            );
+        }
         double convertedAmount = amount * rate;
 
-        return new ConversionResponse(amount, fromCode, toCode, convertedAmount, rate);
+        return new ConversionResponse(amount, snapshot.codeAt(fromId), snapshot.codeAt(toId), convertedAmount, rate);
     }
 }
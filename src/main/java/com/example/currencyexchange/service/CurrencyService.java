@@ -3,63 +3,101 @@ package com.example.currencyexchange.service;
 import com.example.currencyexchange.exception.CurrencyNotFoundException;
 import com.example.currencyexchange.exception.InvalidCurrencyException;
 import com.example.currencyexchange.model.Currency;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+/**
+ * Currency management. The tracked currency set is part of the rate snapshot
+ * published by {@link ExchangeRateService}, so a currency and its rates always
+ * become visible (and disappear) together.
+ */
 @Service
 public class CurrencyService {
 
-    private final ConcurrentHashMap<String, Currency> currencies = new ConcurrentHashMap<>();
+    // ISO 4217 codes and the longer tickers some rate sources quote; also keeps codes storable
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z0-9]{3,10}");
+
     private final ExchangeRateService exchangeRateService;
+    private final ExchangeMetrics metrics;
 
     public CurrencyService(ExchangeRateService exchangeRateService) {
+        this(exchangeRateService, ExchangeMetrics.NONE);
+    }
+
+    @Autowired
+    public CurrencyService(ExchangeRateService exchangeRateService, ExchangeMetrics metrics) {
         this.exchangeRateService = exchangeRateService;
+        this.metrics = metrics;
     }
 
     /**
      * Get all tracked currencies
      */
     public List<String> getAllCurrencies() {
-        return new ArrayList<>(currencies.keySet());
+        return exchangeRateService.getSnapshot().currencies();
     }
 
     /**
      * Add a new currency
      */
     public void addCurrency(String currencyCode) {
-        // Validate input
-        if (currencyCode == null || currencyCode.trim().isEmpty()) {
-            throw new InvalidCurrencyException("Currency code cannot be empty");
+        long start = metrics.start();
+        try {
+            String code = validCode(currencyCode);
+
+            // Add the currency and its rates against all existing currencies in one step.
+            // Already tracked currencies are left as they are.
+            exchangeRateService.addCurrency(code);
+        } catch (RuntimeException e) {
+            metrics.error(ExchangeMetrics.Operation.ADD_CURRENCY, e);
+            throw e;
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.ADD_CURRENCY, start);
         }
+    }
 
-        String code = currencyCode.trim().toUpperCase();
-        
-        // Check if currency already exists
-        if (currencies.containsKey(code)) {
-            return; // Already exists, no need to add again
+    /**
+     * Add several currencies in one step. Every code is validated before anything is
+     * added; the new currencies and all of their rates are published together.
+     * Returns the codes that were not tracked before.
+     */
+    public List<String> addCurrencies(Collection<String> currencyCodes) {
+        if (currencyCodes == null || currencyCodes.isEmpty()) {
+            throw new InvalidCurrencyException("Currency list cannot be empty");
         }
 
-        // Add the currency
-        Currency currency = new Currency(code);
-        currencies.put(code, currency);
+        List<String> codes = new ArrayList<>(currencyCodes.size());
+        for (String currencyCode : currencyCodes) {
+            codes.add(validCode(currencyCode));
+        }
 
-        // Generate exchange rates for the new currency against all existing currencies
-        List<String> existingCurrencies = new ArrayList<>(currencies.keySet());
-        for (String existingCode : existingCurrencies) {
-            if (!existingCode.equals(code)) {
-                exchangeRateService.generateRateForCurrencyPair(code, existingCode);
-            }
+        return exchangeRateService.addCurrencies(codes);
+    }
+
+    /**
+     * Trimmed upper-case form of a code to add, which must be 3 to 10 ASCII letters or digits
+     */
+    private static String validCode(String currencyCode) {
+        if (currencyCode == null || currencyCode.trim().isEmpty()) {
+            throw new InvalidCurrencyException("Currency code cannot be empty");
+        }
+        String code = currencyCode.trim().toUpperCase();
+        if (!CURRENCY_CODE.matcher(code).matches()) {
+            throw new InvalidCurrencyException("Currency code must be 3 to 10 letters or digits");
         }
+        return code;
     }
 
     /**
      * Check if a currency is tracked
      */
     public boolean isCurrencyTracked(String currencyCode) {
-        return currencies.containsKey(currencyCode.toUpperCase());
+        return exchangeRateService.getSnapshot().contains(currencyCode.toUpperCase());
     }
 
     /**
@@ -67,30 +105,33 @@ public class CurrencyService {
      */
     public Currency getCurrency(String currencyCode) {
         String code = currencyCode.toUpperCase();
-        if (!currencies.containsKey(code)) {
+        if (!isCurrencyTracked(code)) {
             throw new CurrencyNotFoundException("Currency not found: " + code);
         }
-        return currencies.get(code);
+        return new Currency(code);
     }
 
     /**
      * Delete a currency
      */
     public void deleteCurrency(String currencyCode) {
-        if (currencyCode == null || currencyCode.trim().isEmpty()) {
-            throw new InvalidCurrencyException("Currency code cannot be empty");
-        }
-
-        String code = currencyCode.trim().toUpperCase();
-        
-        if (!currencies.containsKey(code)) {
-            throw new CurrencyNotFoundException("Currency not found: " + code);
-        }
+        long start = metrics.start();
+        try {
+            if (currencyCode == null || currencyCode.trim().isEmpty()) {
+                throw new InvalidCurrencyException("Currency code cannot be empty");
+            }
 
-        // Remove the currency
-        currencies.remove(code);
+            String code = currencyCode.trim().toUpperCase();
 
-        // Remove all exchange rates involving this currency
-        exchangeRateService.removeRatesForCurrency(code);
+            // Remove the currency and all exchange rates involving it atomically
+            if (!exchangeRateService.removeCurrency(code)) {
+                throw new CurrencyNotFoundException("Currency not found: " + code);
+            }
+        } catch (RuntimeException e) {
+            metrics.error(ExchangeMetrics.Operation.DELETE_CURRENCY, e);
+            throw e;
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.DELETE_CURRENCY, start);
+        }
     }
 }
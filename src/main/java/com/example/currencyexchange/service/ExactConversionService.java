@@ -0,0 +1,240 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExactConversionResponse;
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.exception.InvalidAmountException;
+import com.example.currencyexchange.exception.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Currency conversion in exact decimal arithmetic, used when {@code exchange.money.mode=exact}.
+ *
+ * Each currency has a number of minor units (2 for USD, 0 for JPY, 3 for BHD), taken
+ * from the JDK's ISO 4217 data unless overridden. Amounts are held as longs in minor
+ * units and each rate is fixed to {@code rate-scale} decimal places, so a conversion is
+ * one integer multiply and one rounded division. Only values that do not fit in a long
+ * fall back to {@link BigDecimal}.
+ */
+@Service
+public class ExactConversionService {
+
+    // Minor units for codes the JDK does not know and that have no override
+    static final int DEFAULT_MINOR_UNITS = 2;
+
+    // Highest rate scale; rates up to about 9.2 million still fit in a long at it
+    static final int MAX_RATE_SCALE = 12;
+
+    // Scaled rates at or above this do not fit in a long
+    private static final double RATE_UNITS_LIMIT = 0x1p63;
+
+    private final ExchangeRateService exchangeRateService;
+    private final ExchangeMetrics metrics;
+    private final HotPairTracker hotPairs;
+    private final boolean enabled;
+    private final RoundingMode rounding;
+    private final int rateScale;
+    private final long rateFactor;
+    private final Map<String, Integer> overrides;
+    private final Map<String, Integer> minorUnits = new ConcurrentHashMap<>();
+
+    /**
+     * @param rounding   how converted amounts are rounded to the target's minor units
+     * @param rateScale  decimal places a rate is fixed to before multiplying
+     * @param overrides  minor units per currency code, replacing the ISO 4217 value
+     */
+    public ExactConversionService(ExchangeRateService exchangeRateService, boolean enabled,
+                                  RoundingMode rounding, int rateScale, Map<String, Integer> overrides) {
+        this(exchangeRateService, ExchangeMetrics.NONE, HotPairTracker.NONE, enabled, rounding, rateScale, overrides);
+    }
+
+    public ExactConversionService(ExchangeRateService exchangeRateService, ExchangeMetrics metrics,
+                                  HotPairTracker hotPairs, boolean enabled, RoundingMode rounding, int rateScale,
+                                  Map<String, Integer> overrides) {
+        if (rounding == RoundingMode.UNNECESSARY) {
+            throw new IllegalArgumentException("Rounding mode UNNECESSARY cannot be used for conversions");
+        }
+        if (rateScale < 0 || rateScale > MAX_RATE_SCALE) {
+            throw new IllegalArgumentException("Rate scale must be between 0 and " + MAX_RATE_SCALE);
+        }
+        this.exchangeRateService = exchangeRateService;
+        this.metrics = metrics;
+        this.hotPairs = hotPairs;
+        this.enabled = enabled;
+        this.rounding = rounding;
+        this.rateScale = rateScale;
+        this.rateFactor = ScaledArithmetic.powerOfTen(rateScale);
+        this.overrides = Map.copyOf(overrides);
+    }
+
+    @Autowired
+    public ExactConversionService(ExchangeRateService exchangeRateService,
+                                  ExchangeMetrics metrics,
+                                  HotPairTracker hotPairs,
+                                  @Value("${exchange.money.mode:double}") String mode,
+                                  @Value("${exchange.money.rounding:HALF_EVEN}") String rounding,
+                                  @Value("${exchange.money.rate-scale:10}") int rateScale,
+                                  @Value("${exchange.money.minor-units:}") List<String> overrides) {
+        this(exchangeRateService, metrics, hotPairs, "exact".equalsIgnoreCase(mode.trim()),
+             RoundingMode.valueOf(rounding.trim().toUpperCase()), rateScale, parseOverrides(overrides));
+    }
+
+    /**
+     * Whether conversions should use exact decimal arithmetic
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Refuse an operation that only converts in double precision while exact mode is on,
+     * so a client relying on exact amounts is never answered with doubles
+     */
+    public void rejectIfEnabled(String operation) {
+        if (enabled) {
+            throw new InvalidRequestException(
+                operation + " is not available in exact decimal mode; convert each pair with GET /api/v1/exchange");
+        }
+    }
+
+    /**
+     * Minor units (decimal places) of a currency code
+     */
+    public int minorUnits(String code) {
+        return minorUnits.computeIfAbsent(code, this::lookupMinorUnits);
+    }
+
+    /**
+     * Convert an amount exactly. The amount may not have more decimal places than the
+     * source currency; the result is rounded to the target currency's minor units.
+     * Timed and counted like a conversion in double mode.
+     */
+    public ExactConversionResponse convertCurrency(BigDecimal amount, String fromCurrency, String toCurrency) {
+        long start = metrics.start();
+        try {
+            ExactConversionResponse response = convert(amount, fromCurrency, toCurrency);
+            metrics.pairHit(response.getFromCurrency(), response.getToCurrency());
+            hotPairs.record(response.getFromCurrency(), response.getToCurrency());
+            return response;
+        } catch (RuntimeException e) {
+            metrics.error(ExchangeMetrics.Operation.CONVERT, e);
+            throw e;
+        } finally {
+            metrics.record(ExchangeMetrics.Operation.CONVERT, start);
+        }
+    }
+
+    private ExactConversionResponse convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (amount.signum() < 0) {
+            throw new InvalidAmountException("Amount cannot be negative");
+        }
+
+        String fromCode = fromCurrency.toUpperCase();
+        String toCode = toCurrency.toUpperCase();
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        int fromId = resolve(snapshot, fromCode);
+        int toId = resolve(snapshot, toCode);
+        double rate = fromId == toId ? 1.0 : snapshot.rate(fromId, toId);
+        if (Double.isNaN(rate)) {
+            throw new CurrencyNotFoundException(String.format("Exchange rate not found for %s to %s", fromCode, toCode));
+        }
+
+        int fromScale = minorUnits(fromCode);
+        int toScale = minorUnits(toCode);
+        BigDecimal scaledAmount;
+        try {
+            scaledAmount = amount.setScale(fromScale, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException(
+                String.format("Amount cannot have more than %d decimal places for %s", fromScale, fromCode));
+        }
+
+        long converted = scaledAmount.unscaledValue().bitLength() < Long.SIZE
+            ? convertMinorUnits(scaledAmount.unscaledValue().longValue(), fromCode, toCode, rate)
+            : ScaledArithmetic.OVERFLOW;
+
+        long rateUnits = toRateUnits(rate);
+        BigDecimal exactRate = rateUnits != ScaledArithmetic.OVERFLOW
+            ? BigDecimal.valueOf(rateUnits, rateScale)
+            : new BigDecimal(rate).setScale(rateScale, RoundingMode.HALF_UP);
+        BigDecimal convertedAmount = converted != ScaledArithmetic.OVERFLOW
+            ? BigDecimal.valueOf(converted, toScale)
+            : scaledAmount.multiply(exactRate).setScale(toScale, rounding);
+
+        return new ExactConversionResponse(scaledAmount, fromCode, toCode, convertedAmount, exactRate);
+    }
+
+    /**
+     * Converted amount in minor units of the target, or {@link ScaledArithmetic#OVERFLOW}
+     * if it or the scaled rate does not fit in a long. Allocation-free.
+     */
+    long convertMinorUnits(long amountMinorUnits, String fromCode, String toCode, double rate) {
+        long rateUnits = toRateUnits(rate);
+        if (rateUnits == ScaledArithmetic.OVERFLOW) {
+            return ScaledArithmetic.OVERFLOW;
+        }
+        return ScaledArithmetic.multiply(amountMinorUnits, minorUnits(fromCode), rateUnits, rateScale,
+                                         minorUnits(toCode), rounding);
+    }
+
+    /**
+     * Rate fixed to {@code rateScale} decimal places, or {@link ScaledArithmetic#OVERFLOW}
+     * when that does not fit in a long (Math.round would saturate instead)
+     */
+    private long toRateUnits(double rate) {
+        double scaled = rate * rateFactor;
+        return scaled < RATE_UNITS_LIMIT ? Math.round(scaled) : ScaledArithmetic.OVERFLOW;
+    }
+
+    private int resolve(RateSnapshot snapshot, String code) {
+        int id = snapshot.indexOf(code);
+        if (id < 0) {
+            throw new CurrencyNotFoundException("Currency not supported: " + code);
+        }
+        return id;
+    }
+
+    private int lookupMinorUnits(String code) {
+        Integer override = overrides.get(code);
+        if (override != null) {
+            return override;
+        }
+        try {
+            int digits = java.util.Currency.getInstance(code).getDefaultFractionDigits();
+            // Pseudo-currencies such as XAU report -1
+            return digits < 0 ? DEFAULT_MINOR_UNITS : digits;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_MINOR_UNITS;
+        }
+    }
+
+    /**
+     * Parse {@code CODE:digits} entries
+     */
+    static Map<String, Integer> parseOverrides(List<String> entries) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Minor units must be given as CODE:digits, got " + entry);
+            }
+            int digits = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (digits < 0 || digits > ScaledArithmetic.MAX_SCALE) {
+                throw new IllegalArgumentException("Minor units must be between 0 and " + ScaledArithmetic.MAX_SCALE);
+            }
+            parsed.put(entry.substring(0, separator).trim().toUpperCase(), digits);
+        }
+        return parsed;
+    }
+}
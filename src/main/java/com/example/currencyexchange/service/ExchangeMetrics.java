@@ -0,0 +1,140 @@
+package com.example.currencyexchange.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latency, per-pair hits and errors of the service hot paths.
+ *
+ * Meters are resolved once and cached, so recording is a map lookup at most plus an
+ * increment of Micrometer's adder-backed (striped) counters; no tags are built per call.
+ * Per-pair counters are capped at {@code maxPairSeries}; further pairs are counted
+ * together under {@code pair="other"} to keep the series count bounded.
+ */
+@Component
+public class ExchangeMetrics {
+
+    /**
+     * Recorder that keeps nothing, for services created outside the application context
+     */
+    public static final ExchangeMetrics NONE = new ExchangeMetrics(new CompositeMeterRegistry(), 0);
+
+    /**
+     * Instrumented operations, used as the {@code operation} tag
+     */
+    public enum Operation {
+        CONVERT("convert", true),
+        // One quote converts into many targets; each quoted pair also counts as a pair hit
+        QUOTE("quote", true),
+        // Counted but not timed: a clock read would cost about as much as the lookup
+        RATE_LOOKUP("rate_lookup", false),
+        ADD_CURRENCY("add_currency", true),
+        DELETE_CURRENCY("delete_currency", true);
+
+        private final String tag;
+        private final boolean timed;
+
+        Operation(String tag, boolean timed) {
+            this.tag = tag;
+            this.timed = timed;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final int maxPairSeries;
+    private final Timer[] timers = new Timer[Operation.values().length];
+    private final ConcurrentMap<String, ConcurrentMap<String, Counter>> pairHits = new ConcurrentHashMap<>();
+    private final Counter otherPairHits;
+    private final ConcurrentMap<Operation, ConcurrentMap<Class<?>, Counter>> errors = new ConcurrentHashMap<>();
+    private int pairSeries;
+
+    @Autowired
+    public ExchangeMetrics(MeterRegistry registry,
+                           @Value("${exchange.metrics.max-pair-series:1000}") int maxPairSeries) {
+        this.registry = registry;
+        this.maxPairSeries = maxPairSeries;
+        for (Operation operation : Operation.values()) {
+            if (!operation.timed) {
+                continue;
+            }
+            timers[operation.ordinal()] = Timer.builder("exchange.operation")
+                .description("Latency of exchange service operations")
+                .tag("operation", operation.tag)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+        this.otherPairHits = pairCounter("other");
+    }
+
+    /**
+     * Start timestamp for {@link #record}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the latency of a timed operation that started at {@code startNanos}
+     */
+    public void record(Operation operation, long startNanos) {
+        timers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count one lookup of a currency pair
+     */
+    public void pairHit(String fromCurrency, String toCurrency) {
+        ConcurrentMap<String, Counter> row = pairHits.get(fromCurrency);
+        Counter counter = row == null ? null : row.get(toCurrency);
+        if (counter == null) {
+            counter = registerPair(fromCurrency, toCurrency);
+        }
+        counter.increment();
+    }
+
+    /**
+     * Count an operation that failed with the given exception
+     */
+    public void error(Operation operation, RuntimeException e) {
+        errors.computeIfAbsent(operation, o -> new ConcurrentHashMap<>())
+            .computeIfAbsent(e.getClass(), type -> Counter.builder("exchange.errors")
+                .description("Failed exchange service operations by exception type")
+                .tag("operation", operation.tag)
+                .tag("exception", type.getSimpleName())
+                .register(registry))
+            .increment();
+    }
+
+    private synchronized Counter registerPair(String fromCurrency, String toCurrency) {
+        ConcurrentMap<String, Counter> row = pairHits.computeIfAbsent(fromCurrency, code -> new ConcurrentHashMap<>());
+        Counter counter = row.get(toCurrency);
+        if (counter != null) {
+            return counter;
+        }
+        // Pairs past the cap are remembered too, so they never come back to this lock
+        if (pairSeries >= maxPairSeries) {
+            counter = otherPairHits;
+        } else {
+            pairSeries++;
+            counter = pairCounter(fromCurrency + "/" + toCurrency);
+        }
+        row.put(toCurrency, counter);
+        return counter;
+    }
+
+    private Counter pairCounter(String pair) {
+        return Counter.builder("exchange.pair.hits")
+            .description("Rate lookups and conversions per currency pair")
+            .tag("pair", pair)
+            .register(registry);
+    }
+}
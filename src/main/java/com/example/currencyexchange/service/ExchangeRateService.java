@@ -2,44 +2,307 @@ package com.example.currencyexchange.service;
 
 import com.example.currencyexchange.exception.CurrencyNotFoundException;
 import com.example.currencyexchange.model.ExchangeRate;
+import com.example.currencyexchange.model.RateRefreshResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class ExchangeRateService {
 
-    private final ConcurrentHashMap<String, ExchangeRate> exchangeRates = new ConcurrentHashMap<>();
+    // Single publication point for currencies and rates. Readers take the current
+    // snapshot without locking or copying; writers are serialized and swap in the next version
+    private volatile RateSnapshot snapshot;
+    private volatile RateRefreshResult lastRefresh;
+    private volatile MutationLog mutationLog = MutationLog.NONE;
+    private volatile long publishedAtNanos = System.nanoTime();
+    // Writers build the next snapshot and append to the log while holding it. A monitor
+    // would pin a waiting virtual thread to its carrier for that whole time.
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    private final RateSource rateSource;
+    private final ExchangeMetrics metrics;
+    // Versions restart with the process, so entity tags also name the instance
+    private final String instanceTag = Long.toHexString(new SecureRandom().nextLong());
+
+    public ExchangeRateService() {
+        this(RateMode.MATRIX, null);
+    }
+
+    public ExchangeRateService(RateMode mode, String baseCurrency) {
+        this(mode, baseCurrency, new RandomRateSource());
+    }
+
+    /**
+     * @param mode         rate representation; TRIANGULATED keeps one rate per currency
+     * @param baseCurrency currency every rate is quoted against in TRIANGULATED mode
+     * @param rateSource   where new and refreshed rates come from
+     */
+    public ExchangeRateService(RateMode mode, String baseCurrency, RateSource rateSource) {
+        this(mode, baseCurrency, rateSource, ExchangeMetrics.NONE);
+    }
+
+    public ExchangeRateService(RateMode mode, String baseCurrency, RateSource rateSource, ExchangeMetrics metrics) {
+        String base = mode == RateMode.TRIANGULATED ? baseCurrency.trim().toUpperCase() : null;
+        this.snapshot = RateSnapshot.empty(mode, base);
+        this.rateSource = rateSource;
+        this.metrics = metrics;
+    }
+
+    @Autowired
+    public ExchangeRateService(@Value("${exchange.rates.mode:matrix}") String mode,
+                               @Value("${exchange.rates.base-currency:USD}") String baseCurrency,
+                               RateSource rateSource, ExchangeMetrics metrics) {
+        this(RateMode.valueOf(mode.trim().toUpperCase()), baseCurrency, rateSource, metrics);
+    }
+
+    /**
+     * Get the current immutable rate snapshot
+     */
+    public RateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Nanoseconds since the current snapshot was published
+     */
+    public long snapshotAgeNanos() {
+        return System.nanoTime() - publishedAtNanos;
+    }
+
+    /**
+     * Record every snapshot published from now on in the given log. Changes return
+     * only once their log entry is durable.
+     */
+    public void attach(MutationLog mutationLog) {
+        writerLock.lock();
+        try {
+            this.mutationLog = mutationLog;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Publish a snapshot loaded from persistent storage in place of the current one.
+     * Refused (returning false) when it uses a different rate mode or base currency.
+     */
+    public boolean restore(RateSnapshot restored) {
+        writerLock.lock();
+        try {
+            RateSnapshot current = snapshot;
+            if (restored.mode() != current.mode() || !Objects.equals(restored.baseCurrency(), current.baseCurrency())) {
+                return false;
+            }
+            snapshot = restored;
+            publishedAtNanos = System.nanoTime();
+            return true;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Strong entity tag for anything rendered from the given snapshot. Unique per
+     * snapshot version and service instance.
+     */
+    public String etagFor(RateSnapshot snapshot) {
+        return "\"" + versionTag(snapshot.version()) + "\"";
+    }
+
+    /**
+     * Names a snapshot version of this instance, as {@code <instance>-<version>}. Clients
+     * hand it back to resume from that version.
+     */
+    public String versionTag(long version) {
+        return instanceTag + "-" + version;
+    }
+
+    /**
+     * Snapshot version named by a {@link #versionTag}, or -1 when the tag is missing,
+     * malformed or was issued by another instance or an earlier process, whose versions
+     * mean nothing here.
+     */
+    public long versionOf(String tag) {
+        if (tag == null) {
+            return -1;
+        }
+        String prefix = instanceTag + "-";
+        if (!tag.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 
     /**
-     * Generate a random exchange rate between 0.5 and 2.0
+     * Add a currency and generate bidirectional rates against every known currency.
+     * Returns false if the currency is already tracked.
      */
-    private double generateRandomRate() {
-        return ThreadLocalRandom.current().nextDouble(0.5, 2.0);
+    public boolean addCurrency(String currencyCode) {
+        return !addCurrencies(List.of(currencyCode)).isEmpty();
+    }
+
+    /**
+     * Add several currencies at once. All new rate rows and columns (or, in triangulated
+     * mode, base rates) are generated in a single pass and published as one snapshot.
+     * Returns the codes that were not yet tracked, in input order.
+     */
+    public List<String> addCurrencies(Collection<String> currencyCodes) {
+        List<String> codes;
+        long ticket;
+        writerLock.lock();
+        try {
+            RateSnapshot current = snapshot;
+            codes = untracked(current, currencyCodes);
+            if (codes.isEmpty()) {
+                return codes;
+            }
+            RateSnapshot.Changes changes = new RateSnapshot.Changes();
+            ticket = publish(current.withCurrencies(codes, rateSource, changes), changes);
+        } finally {
+            writerLock.unlock();
+        }
+        mutationLog.awaitDurable(ticket);
+        return codes;
+    }
+
+    private static List<String> untracked(RateSnapshot current, Collection<String> currencyCodes) {
+        Set<String> added = new LinkedHashSet<>();
+        for (String currencyCode : currencyCodes) {
+            String code = currencyCode.toUpperCase();
+            if (!current.contains(code)) {
+                added.add(code);
+            }
+        }
+        return List.copyOf(added);
     }
 
     /**
      * Generate bidirectional exchange rates for a currency pair
      */
     public void generateRateForCurrencyPair(String fromCurrency, String toCurrency) {
-        String key1 = createKey(fromCurrency, toCurrency);
-        String key2 = createKey(toCurrency, fromCurrency);
+        long ticket;
+        writerLock.lock();
+        try {
+            RateSnapshot.Changes changes = new RateSnapshot.Changes();
+            ticket = publish(withPairRate(snapshot, fromCurrency.toUpperCase(), toCurrency.toUpperCase(), changes),
+                             changes);
+        } finally {
+            writerLock.unlock();
+        }
+        mutationLog.awaitDurable(ticket);
+    }
+
+    private RateSnapshot withPairRate(RateSnapshot current, String fromCode, String toCode,
+                                      RateSnapshot.Changes changes) {
+        RateSnapshot next = current;
+
+        // Every tracked currency already has a rate against the base
+        if (next.mode() == RateMode.TRIANGULATED) {
+            List<String> codes = untracked(next, List.of(fromCode, toCode));
+            return codes.isEmpty() ? next : next.withCurrencies(codes, rateSource, changes);
+        }
+
+        // Unknown codes are interned without rates
+        for (String code : new LinkedHashSet<>(List.of(fromCode, toCode))) {
+            if (!next.contains(code)) {
+                next = next.withCurrencies(List.of(code), (from, to) -> Double.NaN, changes);
+            }
+        }
+
+        int fromId = next.indexOf(fromCode);
+        int toId = next.indexOf(toCode);
 
         // Check if rate already exists
-        if (exchangeRates.containsKey(key1)) {
-            return;
+        if (!Double.isNaN(next.rate(fromId, toId))) {
+            return next;
         }
 
-        // Generate rate from currency1 to currency2
-        double rate = generateRandomRate();
-        ExchangeRate rate1 = new ExchangeRate(fromCurrency, toCurrency, rate);
-        exchangeRates.put(key1, rate1);
+        // Inverse rate is stored alongside to keep both directions consistent
+        return next.withRate(fromId, toId, rateSource.rate(fromCode, toCode), changes);
+    }
+
+    /**
+     * Log and publish the next snapshot, given what changed since the current one. Caller
+     * holds the writer lock and waits for the returned ticket after releasing it. When the
+     * log refuses the change nothing is published.
+     */
+    private long publish(RateSnapshot next, RateSnapshot.Changes changes) {
+        RateSnapshot current = snapshot;
+        if (next == current) {
+            return 0;
+        }
+        long ticket = mutationLog.append(current, next, changes);
+        snapshot = next;
+        publishedAtNanos = System.nanoTime();
+        return ticket;
+    }
+
+    /**
+     * Fetch new rates from the rate source and publish them as one snapshot. Only pairs
+     * involving the given currencies are refreshed, or every pair when the collection is
+     * null or empty. In-flight readers keep the snapshot they already hold.
+     */
+    public RateRefreshResult refreshRates(Collection<String> currencyCodes) {
+        long start = System.nanoTime();
+        // Reload outside the writer lock so slow sources do not hold up currency changes
+        rateSource.reload();
+
+        Set<String> selected = null;
+        if (currencyCodes != null && !currencyCodes.isEmpty()) {
+            selected = new HashSet<>();
+            for (String code : currencyCodes) {
+                selected.add(code.trim().toUpperCase());
+            }
+        }
+
+        int[] updated = {0};
+        RateSource counting = (from, to) -> {
+            double rate = rateSource.rate(from, to);
+            if (!Double.isNaN(rate)) {
+                updated[0]++;
+            }
+            return rate;
+        };
+
+        long version;
+        long ticket;
+        writerLock.lock();
+        try {
+            RateSnapshot.Changes changes = new RateSnapshot.Changes();
+            ticket = publish(snapshot.withRefreshedRates(selected, counting, changes), changes);
+            version = snapshot.version();
+        } finally {
+            writerLock.unlock();
+        }
+        mutationLog.awaitDurable(ticket);
+
+        RateRefreshResult result = new RateRefreshResult(version, updated[0], System.nanoTime() - start, Instant.now());
+        lastRefresh = result;
+        return result;
+    }
 
-        // Generate inverse rate (ensure consistency)
-        double inverseRate = 1.0 / rate;
-        ExchangeRate rate2 = new ExchangeRate(toCurrency, fromCurrency, inverseRate);
-        exchangeRates.put(key2, rate2);
+    /**
+     * Outcome of the most recent refresh, or null if rates were never refreshed
+     */
+    public RateRefreshResult getLastRefresh() {
+        return lastRefresh;
     }
 
     /**
@@ -51,36 +314,58 @@ public class ExchangeRateService {
             return 1.0;
         }
 
-        String key = createKey(fromCurrency.toUpperCase(), toCurrency.toUpperCase());
-        
-        if (!exchangeRates.containsKey(key)) {
-            throw new CurrencyNotFoundException(
+        RateSnapshot current = snapshot;
+        int fromId = current.indexOf(fromCurrency.toUpperCase());
+        int toId = current.indexOf(toCurrency.toUpperCase());
+        double rate = fromId < 0 || toId < 0 ? Double.NaN : current.rate(fromId, toId);
+
+        if (Double.isNaN(rate)) {
+            CurrencyNotFoundException e = new CurrencyNotFoundException(
                 String.format("Exchange rate not found for %s to %s", fromCurrency, toCurrency)
             );
+            metrics.error(ExchangeMetrics.Operation.RATE_LOOKUP, e);
+            throw e;
         }
 
-        return exchangeRates.get(key).getRate();
+        metrics.pairHit(current.codeAt(fromId), current.codeAt(toId));
+        return rate;
     }
 
     /**
      * Create a unique key for currency pair
      */
     private String createKey(String fromCurrency, String toCurrency) {
-        return fromCurrency.toUpperCase() + "_" + toCurrency.toUpperCase();
+        return fromCurrency + "_" + toCurrency;
     }
 
     /**
      * Get all exchange rates (for testing/debugging)
      */
-    public ConcurrentHashMap<String, ExchangeRate> getAllRates() {
-        return new ConcurrentHashMap<>(exchangeRates);
+    public Map<String, ExchangeRate> getAllRates() {
+        Map<String, ExchangeRate> rates = new LinkedHashMap<>();
+        snapshot.forEachRate((from, to, rate) -> rates.put(createKey(from, to), new ExchangeRate(from, to, rate)));
+        return rates;
     }
 
     /**
-     * Remove all exchange rates involving a specific currency
+     * Remove a currency together with all exchange rates involving it.
+     * Returns false if the currency is not tracked.
      */
-    public void removeRatesForCurrency(String currencyCode) {
-        String code = currencyCode.toUpperCase();
-        exchangeRates.keySet().removeIf(key -> key.startsWith(code + "_") || key.endsWith("_" + code));
+    public boolean removeCurrency(String currencyCode) {
+        long ticket;
+        writerLock.lock();
+        try {
+            RateSnapshot current = snapshot;
+            int id = current.indexOf(currencyCode.toUpperCase());
+            if (id < 0) {
+                return false;
+            }
+            RateSnapshot.Changes changes = new RateSnapshot.Changes();
+            ticket = publish(current.withoutCurrency(id, changes), changes);
+        } finally {
+            writerLock.unlock();
+        }
+        mutationLog.awaitDurable(ticket);
+        return true;
     }
 }
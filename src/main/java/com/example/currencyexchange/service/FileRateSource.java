@@ -0,0 +1,80 @@
+package com.example.currencyexchange.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rates read from a local CSV file with lines of the form {@code FROM,TO,RATE}.
+ * Blank lines and lines starting with '#' are ignored. A pair missing from the
+ * file is answered with the inverse of the opposite direction if that is present.
+ * The file is re-read before every refresh.
+ */
+public class FileRateSource implements RateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileRateSource.class);
+
+    private final Path file;
+    private volatile Map<String, Double> rates;
+
+    public FileRateSource(Path file) {
+        this.file = file;
+        this.rates = load(file);
+    }
+
+    @Override
+    public double rate(String fromCurrency, String toCurrency) {
+        Map<String, Double> current = rates;
+        Double rate = current.get(fromCurrency + "_" + toCurrency);
+        if (rate != null) {
+            return rate;
+        }
+        Double inverse = current.get(toCurrency + "_" + fromCurrency);
+        return inverse != null ? 1.0 / inverse : Double.NaN;
+    }
+
+    @Override
+    public void reload() {
+        try {
+            rates = load(file);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            // Keep serving the last good file
+            logger.error("Failed to reload rates from {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Double> load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rate file " + file, e);
+        }
+
+        Map<String, Double> rates = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate line " + (i + 1) + " in " + file + ": " + line);
+            }
+            double rate = Double.parseDouble(parts[2].trim());
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("Invalid rate on line " + (i + 1) + " in " + file + ": " + line);
+            }
+            rates.put(parts[0].trim().toUpperCase() + "_" + parts[1].trim().toUpperCase(), rate);
+        }
+        return rates;
+    }
+}
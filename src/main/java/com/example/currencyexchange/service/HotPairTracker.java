@@ -0,0 +1,251 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.HotPairResponse;
+import com.example.currencyexchange.dto.HotPairsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Finds the most converted currency pairs over a sliding time window in bounded memory.
+ *
+ * The window is a ring of time buckets. Each bucket counts conversions in a Count-Min
+ * sketch ({@code depth} rows of {@code width} counters, incremented without locking) and
+ * keeps up to {@code topK} candidate pairs whose estimate made them heavy hitters. Only a
+ * pair that is not yet a candidate and whose estimate beats the weakest candidate takes
+ * the bucket lock, so steady traffic on hot pairs never does. Queries add up the estimates
+ * of every candidate across the buckets still inside the window.
+ *
+ * Counts are approximate: an estimate never undercounts and, with probability
+ * {@code 1 - e^-depth}, overcounts by at most {@code e / width} of the bucket's conversions.
+ * A conversion recorded while its bucket is being recycled may land in the new interval.
+ */
+@Service
+public class HotPairTracker {
+
+    /**
+     * Tracker that records nothing, for services created outside the application context
+     */
+    public static final HotPairTracker NONE = new HotPairTracker(0, Duration.ofMinutes(1), 1, 1, 1, System::nanoTime);
+
+    private final int topK;
+    private final long bucketNanos;
+    private final int width;
+    private final int depth;
+    private final Bucket[] buckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param topK    candidates kept per bucket, 0 disables tracking
+     * @param window  time covered by queries
+     * @param buckets number of intervals the window slides by
+     * @param width   counters per sketch row, rounded up to a power of two
+     * @param depth   sketch rows
+     */
+    public HotPairTracker(int topK, Duration window, int buckets, int width, int depth, LongSupplier nanoClock) {
+        if (topK < 0 || buckets < 1 || width < 1 || depth < 1 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Invalid hot pair tracker settings");
+        }
+        this.topK = topK;
+        this.bucketNanos = Math.max(1, window.toNanos() / buckets);
+        int rowWidth = Integer.highestOneBit(width);
+        this.width = rowWidth < width ? rowWidth << 1 : rowWidth;
+        this.depth = depth;
+        this.nanoClock = nanoClock;
+        this.buckets = new Bucket[topK == 0 ? 0 : buckets];
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new Bucket(this.width * depth);
+        }
+    }
+
+    @Autowired
+    public HotPairTracker(@Value("${exchange.hot-pairs.top-k:100}") int topK,
+                          @Value("${exchange.hot-pairs.window:PT5M}") Duration window,
+                          @Value("${exchange.hot-pairs.buckets:5}") int buckets,
+                          @Value("${exchange.hot-pairs.sketch-width:2048}") int width,
+                          @Value("${exchange.hot-pairs.sketch-depth:4}") int depth) {
+        this(topK, window, buckets, width, depth, System::nanoTime);
+    }
+
+    /**
+     * Count one conversion of a currency pair, given as upper-case codes
+     */
+    public void record(String fromCurrency, String toCurrency) {
+        if (topK == 0) {
+            return;
+        }
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        if (bucket.epoch != epoch) {
+            bucket.recycle(epoch);
+        }
+
+        long hash = hash(fromCurrency, toCurrency);
+        long estimate = bucket.add(hash);
+        if (!bucket.isCandidate(fromCurrency, toCurrency) && estimate >= bucket.admission) {
+            bucket.offer(fromCurrency, toCurrency, hash, estimate);
+        }
+    }
+
+    /**
+     * The most converted pairs within the window, most converted first
+     */
+    public HotPairsResponse top(int limit) {
+        long windowSeconds = Duration.ofNanos(bucketNanos * Math.max(1, buckets.length)).toSeconds();
+        if (topK == 0 || limit <= 0) {
+            return new HotPairsResponse(windowSeconds, 0, List.of());
+        }
+        long current = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        for (Bucket bucket : buckets) {
+            long epoch = bucket.epoch;
+            if (epoch <= current && epoch > current - buckets.length) {
+                live.add(bucket);
+            }
+        }
+
+        long conversions = 0;
+        Map<String, Candidate> pairs = new LinkedHashMap<>();
+        for (Bucket bucket : live) {
+            conversions += bucket.total.sum();
+            for (Candidate candidate : bucket.candidates()) {
+                pairs.putIfAbsent(candidate.fromCurrency + "/" + candidate.toCurrency, candidate);
+            }
+        }
+
+        List<HotPairResponse> ranked = new ArrayList<>(pairs.size());
+        for (Candidate candidate : pairs.values()) {
+            long count = 0;
+            for (Bucket bucket : live) {
+                count += bucket.estimate(candidate.hash);
+            }
+            ranked.add(new HotPairResponse(candidate.fromCurrency, candidate.toCurrency, count));
+        }
+        ranked.sort(Comparator.comparingLong(HotPairResponse::getCount).reversed());
+        return new HotPairsResponse(windowSeconds, conversions,
+                                    new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size()))));
+    }
+
+    private static long hash(String fromCurrency, String toCurrency) {
+        // String hashes are cached, so this allocates nothing; finish with the MurmurHash3 mixer
+        long h = fromCurrency.hashCode() * 0x9E3779B97F4A7C15L + toCurrency.hashCode();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private record Candidate(String fromCurrency, String toCurrency, long hash) {
+    }
+
+    /**
+     * Sketch and candidates for one interval of the window
+     */
+    private final class Bucket {
+        private final AtomicLongArray counts;
+        private final LongAdder total = new LongAdder();
+        // Lock-free membership test on the hot path; the list is changed under the bucket lock
+        private final ConcurrentMap<String, ConcurrentMap<String, Candidate>> members = new ConcurrentHashMap<>();
+        private final List<Candidate> candidates = new ArrayList<>();
+        private volatile long epoch = Long.MIN_VALUE;
+        // Estimate a new pair needs to become a candidate
+        private volatile long admission;
+
+        Bucket(int counters) {
+            this.counts = new AtomicLongArray(counters);
+        }
+
+        synchronized void recycle(long next) {
+            if (epoch >= next) {
+                return;
+            }
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            total.reset();
+            members.clear();
+            candidates.clear();
+            admission = 0;
+            epoch = next;
+        }
+
+        long add(long hash) {
+            total.increment();
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counts.incrementAndGet(index(hash, row)));
+            }
+            return estimate;
+        }
+
+        long estimate(long hash) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counts.get(index(hash, row)));
+            }
+            return estimate;
+        }
+
+        private int index(long hash, int row) {
+            // Row hashes derived from two halves of one hash (Kirsch-Mitzenmacher)
+            int combined = (int) hash + row * (int) (hash >>> 32);
+            return row * width + (combined & (width - 1));
+        }
+
+        boolean isCandidate(String fromCurrency, String toCurrency) {
+            Map<String, Candidate> row = members.get(fromCurrency);
+            return row != null && row.containsKey(toCurrency);
+        }
+
+        synchronized void offer(String fromCurrency, String toCurrency, long hash, long estimate) {
+            if (isCandidate(fromCurrency, toCurrency)) {
+                return;
+            }
+            if (candidates.size() >= topK) {
+                int weakest = 0;
+                long weakestCount = Long.MAX_VALUE;
+                for (int i = 0; i < candidates.size(); i++) {
+                    long count = estimate(candidates.get(i).hash);
+                    if (count < weakestCount) {
+                        weakest = i;
+                        weakestCount = count;
+                    }
+                }
+                if (estimate <= weakestCount) {
+                    admission = weakestCount + 1;
+                    return;
+                }
+                Candidate evicted = candidates.set(weakest, candidates.get(candidates.size() - 1));
+                candidates.remove(candidates.size() - 1);
+                members.get(evicted.fromCurrency).remove(evicted.toCurrency);
+            }
+            Candidate candidate = new Candidate(fromCurrency, toCurrency, hash);
+            candidates.add(candidate);
+            members.computeIfAbsent(fromCurrency, code -> new ConcurrentHashMap<>()).put(toCurrency, candidate);
+            if (candidates.size() >= topK) {
+                long weakestCount = Long.MAX_VALUE;
+                for (Candidate c : candidates) {
+                    weakestCount = Math.min(weakestCount, estimate(c.hash));
+                }
+                admission = weakestCount + 1;
+            }
+        }
+
+        synchronized List<Candidate> candidates() {
+            return new ArrayList<>(candidates);
+        }
+    }
+}
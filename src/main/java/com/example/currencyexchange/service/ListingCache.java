@@ -0,0 +1,189 @@
+package com.example.currencyexchange.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered JSON bodies of the rate and currency listings, kept for the latest
+ * snapshot version.
+ *
+ * Listings only change when a snapshot is published, so each is serialized once
+ * per version and every request in between writes the same bytes. The gzip form
+ * is produced on first demand and cached alongside. Bodies match what Jackson
+ * would write for {@code ExchangeRatesListResponse} and {@code CurrencyListResponse}.
+ */
+@Service
+public class ListingCache {
+
+    private final ExchangeRateService exchangeRateService;
+    private final JsonFactory jsonFactory;
+    private final Slot rates = new Slot(this::renderRates);
+    private final Slot currencies = new Slot(this::renderCurrencies);
+
+    public ListingCache(ExchangeRateService exchangeRateService, ObjectMapper objectMapper) {
+        this.exchangeRateService = exchangeRateService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Rendered rate listing of the given snapshot
+     */
+    public CachedBody rates(RateSnapshot snapshot) {
+        return rates.get(snapshot);
+    }
+
+    /**
+     * Rendered currency listing of the current snapshot
+     */
+    public CachedBody currencies() {
+        return currencies.get(exchangeRateService.getSnapshot());
+    }
+
+    private byte[] renderRates(RateSnapshot snapshot) {
+        int size = snapshot.size();
+        // Roughly 60 bytes per pair
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + size * Math.max(size - 1, 0) * 60);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("rates");
+            snapshot.forEachRate((from, to, rate) -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("fromCurrency", from);
+                    generator.writeStringField("toCurrency", to);
+                    generator.writeNumberField("rate", rate);
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] renderCurrencies(RateSnapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + snapshot.size() * 6);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("currencies");
+            for (String code : snapshot.currencies()) {
+                generator.writeString(code);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One listing rendered from one snapshot version
+     */
+    public static final class CachedBody {
+        private final long version;
+        private final byte[] json;
+        // Not a monitor, for the same reason as in Slot
+        private final ReentrantLock gzipLock = new ReentrantLock();
+        private volatile byte[] gzip;
+
+        CachedBody(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        /**
+         * Snapshot version the body was rendered from
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * UTF-8 JSON body; callers must not modify it
+         */
+        public byte[] json() {
+            return json;
+        }
+
+        /**
+         * Gzip-compressed JSON body, compressed once on first use; callers must not modify it
+         */
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                gzipLock.lock();
+                try {
+                    compressed = gzip;
+                    if (compressed == null) {
+                        compressed = compress(json);
+                        gzip = compressed;
+                    }
+                } finally {
+                    gzipLock.unlock();
+                }
+            }
+            return compressed;
+        }
+
+        private static byte[] compress(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+                gzip.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Latest rendering of one listing. Concurrent misses for the same version render
+     * once; a reader still holding an older snapshot never evicts a newer body. Misses
+     * wait on a ReentrantLock rather than a monitor, so request threads that are virtual
+     * unmount while another one renders instead of pinning their carriers.
+     */
+    private static final class Slot {
+        private final Function<RateSnapshot, byte[]> renderer;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile CachedBody cached;
+
+        Slot(Function<RateSnapshot, byte[]> renderer) {
+            this.renderer = renderer;
+        }
+
+        CachedBody get(RateSnapshot snapshot) {
+            CachedBody body = cached;
+            if (body != null && body.version == snapshot.version()) {
+                return body;
+            }
+            lock.lock();
+            try {
+                body = cached;
+                if (body != null && body.version == snapshot.version()) {
+                    return body;
+                }
+                CachedBody rendered = new CachedBody(snapshot.version(), renderer.apply(snapshot));
+                if (body == null || body.version < rendered.version) {
+                    cached = rendered;
+                }
+                return rendered;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
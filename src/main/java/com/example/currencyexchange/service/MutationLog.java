@@ -0,0 +1,35 @@
+package com.example.currencyexchange.service;
+
+/**
+ * Durable record of published rate snapshots. {@link ExchangeRateService} appends every
+ * new snapshot while holding its writer lock, which fixes the log order, and waits for the
+ * returned ticket after releasing it, so concurrent writers can share one sync.
+ */
+public interface MutationLog {
+
+    /**
+     * Log that keeps nothing
+     */
+    MutationLog NONE = new MutationLog() {
+        @Override
+        public long append(RateSnapshot previous, RateSnapshot next, RateSnapshot.Changes changes) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long ticket) {
+        }
+    };
+
+    /**
+     * Queue the change from {@code previous} to {@code next}, which consists of exactly
+     * {@code changes}. Returns a ticket for {@link #awaitDurable}. Throws when the change
+     * cannot be logged, in which case it must not be published.
+     */
+    long append(RateSnapshot previous, RateSnapshot next, RateSnapshot.Changes changes);
+
+    /**
+     * Block until the change behind the ticket is on stable storage
+     */
+    void awaitDurable(long ticket);
+}
@@ -0,0 +1,14 @@
+package com.example.currencyexchange.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mock rates: a random value between 0.5 and 2.0 for every requested pair
+ */
+public class RandomRateSource implements RateSource {
+
+    @Override
+    public double rate(String fromCurrency, String toCurrency) {
+        return ThreadLocalRandom.current().nextDouble(0.5, 2.0);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RateChangesResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes rate changes to server-sent event subscribers.
+ *
+ * A dispatcher checks the published snapshot version on a short interval. Each
+ * subscriber is sent the pairs changed since the last version it received, as one
+ * event whose id is the new version's {@link ExchangeRateService#versionTag tag}. Subscribers at the same version share one
+ * serialized payload. A subscriber still busy with its previous event is skipped,
+ * so a slow consumer gets a single coalesced diff once it catches up rather than
+ * a backlog of intermediate versions.
+ */
+@Service
+public class RateChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateChangeFeed.class);
+
+    static final String EVENT_NAME = "rates";
+
+    private final ExchangeRateService exchangeRateService;
+    private final ObjectMapper objectMapper;
+    private final Duration pollInterval;
+    private final Duration heartbeatInterval;
+    private final long heartbeatNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    // Sends block on slow clients, so each one runs on its own virtual thread
+    private final ExecutorService senders;
+
+    public RateChangeFeed(ExchangeRateService exchangeRateService,
+                          ObjectMapper objectMapper,
+                          @Value("${exchange.rates.feed.poll-interval:PT0.2S}") Duration pollInterval,
+                          @Value("${exchange.rates.feed.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.exchangeRateService = exchangeRateService;
+        this.objectMapper = objectMapper;
+        this.pollInterval = pollInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(virtualThreads
+            ? Thread.ofVirtual().name("rate-feed").factory()
+            : Thread.ofPlatform().name("rate-feed").daemon().factory());
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-feed-send-", 0).factory());
+        long pollMillis = Math.max(1, pollInterval.toMillis());
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register a subscriber. It first receives the changes since the version named by
+     * {@code sinceTag}, or the full listing when that is null, names another instance's
+     * version or can no longer be diffed against.
+     */
+    public SseEmitter subscribe(String sinceTag) {
+        // Heartbeats detect closed connections, so the stream itself never times out
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, exchangeRateService.versionOf(sinceTag));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Reactive form of {@link #subscribe}: one element per new version, carrying the changes
+     * since the previous element. The subscriber's demand is the backpressure: versions
+     * published while it is not requesting are skipped, and the diff is computed when the
+     * next element is requested, so a slow subscriber gets one coalesced diff.
+     */
+    public Flux<RateChangesResponse> changes(String sinceTag) {
+        return Flux.defer(() -> {
+            long[] lastVersion = {exchangeRateService.versionOf(sinceTag)};
+            return Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .map(tick -> exchangeRateService.getSnapshot())
+                .filter(snapshot -> snapshot.version() != lastVersion[0])
+                .map(snapshot -> {
+                    RateChangesResponse changes = changesSince(snapshot, lastVersion[0]);
+                    lastVersion[0] = snapshot.version();
+                    return changes;
+                });
+        });
+    }
+
+    /**
+     * How often an idle stream should carry a heartbeat
+     */
+    public Duration heartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * Number of open subscriptions
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Pairs that changed between {@code sinceVersion} and the given snapshot. Falls back
+     * to the full listing when the version is unknown or older than the removal log.
+     */
+    public static RateChangesResponse changesSince(RateSnapshot snapshot, long sinceVersion) {
+        boolean full = sinceVersion <= 0 || !snapshot.hasChangesSince(sinceVersion);
+        long since = full ? -1 : sinceVersion;
+
+        List<ExchangeRateResponse> rates = new ArrayList<>();
+        snapshot.forEachRateChangedSince(since, (from, to, rate) -> rates.add(new ExchangeRateResponse(from, to, rate)));
+        List<String> removed = full ? List.of() : snapshot.removedSince(since);
+
+        return new RateChangesResponse(snapshot.version(), full ? 0 : sinceVersion, full, removed, rates);
+    }
+
+    void dispatch() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        RateSnapshot current = exchangeRateService.getSnapshot();
+        long now = System.nanoTime();
+        Map<Long, String> payloads = new HashMap<>();
+
+        for (Subscriber subscriber : subscribers) {
+            boolean behind = subscriber.lastVersion != current.version();
+            if (!behind && now - subscriber.lastSentNanos < heartbeatNanos) {
+                continue;
+            }
+            // Still writing an earlier event: its next diff will cover this version too
+            if (!subscriber.sending.compareAndSet(false, true)) {
+                continue;
+            }
+            String payload = behind ? payloads.computeIfAbsent(subscriber.lastVersion, v -> render(current, v)) : null;
+            senders.execute(() -> subscriber.send(current.version(), payload));
+        }
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            logger.error("Rate feed dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private String render(RateSnapshot snapshot, long sinceVersion) {
+        try {
+            return objectMapper.writeValueAsString(changesSince(snapshot, sinceVersion));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long lastVersion;
+        volatile long lastSentNanos = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long lastVersion) {
+            this.emitter = emitter;
+            this.lastVersion = lastVersion;
+        }
+
+        /**
+         * Send the diff up to {@code version}, or a heartbeat comment when payload is null
+         */
+        void send(long version, String payload) {
+            try {
+                if (payload == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                        .id(exchangeRateService.versionTag(version))
+                        .name(EVENT_NAME)
+                        .data(payload));
+                    lastVersion = version;
+                }
+                lastSentNanos = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter is unusable from here on
+                subscribers.remove(this);
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
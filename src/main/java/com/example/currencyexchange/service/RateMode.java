@@ -0,0 +1,17 @@
+package com.example.currencyexchange.service;
+
+/**
+ * How the rate store represents exchange rates
+ */
+public enum RateMode {
+    /**
+     * Independent rate for every pair, N x N storage
+     */
+    MATRIX,
+
+    /**
+     * One rate per currency against a base currency; cross rates are derived
+     * as rate[to] / rate[from], so storage is linear and round trips are arbitrage-free
+     */
+    TRIANGULATED
+}
@@ -0,0 +1,124 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RatePageResponse;
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.exception.InvalidRequestException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Filtered and paginated reads of the rates in a snapshot.
+ *
+ * Queries walk the snapshot directly by currency id: a {@code from} filter reads
+ * one row, a {@code to} filter one column, so the cost is proportional to the page
+ * rather than to all N² pairs. Pairs are returned in id order, which is stable
+ * across versions. The cursor names the last pair returned, so a page can be
+ * resumed against a later snapshot as long as both currencies are still tracked.
+ */
+@Service
+public class RateQueryService {
+
+    // Largest page a client may ask for, also used when no limit is given
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Rates of the given snapshot matching the optional {@code from} and {@code to}
+     * currencies, at most {@code limit} of them, starting after {@code cursor}
+     */
+    public RatePageResponse query(RateSnapshot snapshot, String fromCurrency, String toCurrency,
+                                  Integer limit, String cursor) {
+        int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        int fromId = resolve(snapshot, fromCurrency);
+        int toId = resolve(snapshot, toCurrency);
+
+        // Position of the first pair to consider
+        int startRow = 0;
+        int startColumn = 0;
+        if (cursor != null) {
+            int[] last = decodeCursor(snapshot, cursor);
+            startRow = last[0];
+            startColumn = last[1] + 1;
+        }
+
+        int bound = snapshot.idLimit();
+        int firstRow = fromId >= 0 ? Math.max(fromId, startRow) : startRow;
+        int lastRow = fromId >= 0 ? fromId : bound - 1;
+        int lastColumn = toId >= 0 ? toId : bound - 1;
+        List<ExchangeRateResponse> rates = new ArrayList<>(Math.min(pageSize, bound));
+
+        for (int i = firstRow; i <= lastRow; i++) {
+            String from = snapshot.codeAt(i);
+            if (from == null) {
+                continue;
+            }
+            int j = i == startRow ? startColumn : 0;
+            if (toId >= 0) {
+                // Single column: either still ahead of the cursor or already returned
+                j = j <= toId ? toId : bound;
+            }
+            for (; j <= lastColumn; j++) {
+                String to = snapshot.codeAt(j);
+                double rate = snapshot.rate(i, j);
+                if (i == j || to == null || Double.isNaN(rate)) {
+                    continue;
+                }
+                if (rates.size() == pageSize) {
+                    ExchangeRateResponse lastRate = rates.get(pageSize - 1);
+                    return new RatePageResponse(snapshot.version(), rates, encodeCursor(lastRate));
+                }
+                rates.add(new ExchangeRateResponse(from, to, rate));
+            }
+        }
+        return new RatePageResponse(snapshot.version(), rates, null);
+    }
+
+    private static int resolve(RateSnapshot snapshot, String currency) {
+        if (currency == null) {
+            return -1;
+        }
+        String code = currency.trim().toUpperCase();
+        int id = snapshot.indexOf(code);
+        if (id < 0) {
+            throw new CurrencyNotFoundException("Currency not supported: " + code);
+        }
+        return id;
+    }
+
+    private static String encodeCursor(ExchangeRateResponse last) {
+        String pair = last.fromCurrency() + ":" + last.toCurrency();
+        return CURSOR_ENCODER.encodeToString(pair.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ids of the pair a cursor names in the given snapshot
+     */
+    private static int[] decodeCursor(RateSnapshot snapshot, String cursor) {
+        String pair;
+        try {
+            pair = new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        int separator = pair.indexOf(':');
+        if (separator < 0) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        int fromId = snapshot.indexOf(pair.substring(0, separator));
+        int toId = snapshot.indexOf(pair.substring(separator + 1));
+        if (fromId < 0 || toId < 0) {
+            throw new InvalidRequestException("Cursor refers to a currency that is no longer tracked");
+        }
+        return new int[] {fromId, toId};
+    }
+}
@@ -0,0 +1,654 @@
+package com.example.currencyexchange.service;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned view of the tracked currencies and their exchange rates.
+ *
+ * Currency codes are interned to integer ids. In {@link RateMode#MATRIX} mode rates
+ * are kept in a flat row-major matrix, so resolving a rate is two id lookups and one
+ * array read. In {@link RateMode#TRIANGULATED} mode only each currency's rate against
+ * the base currency is kept and a cross rate is the quotient of two entries.
+ * A missing rate is stored as NaN. Writers derive the next version with the
+ * {@code with*} methods; what a published snapshot exposes never changes.
+ *
+ * The matrix is allocated with spare capacity and shared between consecutive
+ * versions. Adding a currency only fills the next unused row and column, which
+ * no earlier snapshot can read, and removing one only drops its id from the
+ * index, leaving its row and column unreachable. Both cost O(N). Unreachable
+ * rows are reclaimed by compacting once they outnumber the tracked currencies.
+ *
+ * Every stored rate carries the version that last wrote it, and the most recent
+ * removals are logged, so the pairs that changed since an earlier version can be
+ * listed without keeping old snapshots around. Writers that need exactly what one
+ * step changed pass a {@link Changes} to the {@code with*} methods instead, which
+ * costs no more than the cells the step writes anyway.
+ */
+public final class RateSnapshot {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_LOGGED_REMOVALS = 256;
+
+    /**
+     * Receives one currency pair and its rate
+     */
+    @FunctionalInterface
+    public interface RateConsumer {
+        void accept(String fromCurrency, String toCurrency, double rate);
+    }
+
+    private final long version;
+    private final Map<String, Integer> ids;
+    // Code per id; null for ids whose currency has been removed
+    private final String[] codes;
+    private final List<String> currencies;
+    private final Storage storage;
+    private final double[] rates;
+    private final long[] stamps;
+    private final int stride;
+    private final boolean triangulated;
+    private final RemovalLog removals;
+
+    private RateSnapshot(long version, Map<String, Integer> ids, String[] codes, Storage storage, RemovalLog removals) {
+        this.version = version;
+        this.ids = ids;
+        this.codes = codes;
+        this.storage = storage;
+        this.removals = removals;
+        this.stamps = storage.stamps;
+        this.rates = storage.rates;
+        this.stride = storage.capacity;
+        this.triangulated = storage.mode == RateMode.TRIANGULATED;
+
+        List<String> live = new ArrayList<>(ids.size());
+        for (String code : codes) {
+            if (code != null) {
+                live.add(code);
+            }
+        }
+        this.currencies = Collections.unmodifiableList(live);
+    }
+
+    /**
+     * Empty snapshot for the given representation. The base currency is only used
+     * in triangulated mode, where it is pinned to a rate of 1.
+     */
+    static RateSnapshot empty(RateMode mode, String baseCurrency) {
+        return new RateSnapshot(0, Collections.emptyMap(), new String[0], new Storage(mode, baseCurrency, 0),
+            RemovalLog.EMPTY);
+    }
+
+    /**
+     * Snapshot read back from a persisted file: the given currencies in id order and their
+     * rates as written by {@link #writeRates}. Every rate is stamped with the restored
+     * version and no removals are known, so diffs are only available from that version on.
+     */
+    static RateSnapshot restored(RateMode mode, String baseCurrency, long version, List<String> currencyCodes,
+                                 DoubleBuffer denseRates) {
+        int n = currencyCodes.size();
+        Storage target = new Storage(mode, baseCurrency, grow(n, n));
+        int s = target.capacity;
+        if (mode == RateMode.TRIANGULATED) {
+            denseRates.get(target.rates, 0, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                denseRates.get(target.rates, i * s, n);
+            }
+        }
+        Arrays.fill(target.stamps, version);
+        target.used = n;
+
+        String[] restoredCodes = currencyCodes.toArray(new String[0]);
+        Map<String, Integer> restoredIds = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            restoredIds.put(restoredCodes[i], i);
+        }
+        return new RateSnapshot(version, Collections.unmodifiableMap(restoredIds), restoredCodes, target,
+            new RemovalLog(new String[0], new long[0], version));
+    }
+
+    /**
+     * Number of doubles {@link #writeRates} produces
+     */
+    long denseRateCount() {
+        long n = size();
+        return triangulated ? n : n * n;
+    }
+
+    /**
+     * Write the rates of the tracked currencies densely, in the order of {@link #currencies}:
+     * the base rate per currency in triangulated mode, otherwise the matrix row by row
+     */
+    void writeRates(DoubleBuffer target) {
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == null) {
+                continue;
+            }
+            if (triangulated) {
+                target.put(rates[i]);
+                continue;
+            }
+            for (int j = 0; j < codes.length; j++) {
+                if (codes[j] != null) {
+                    target.put(rates[i * stride + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Version of this snapshot, incremented on every published change
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Number of tracked currencies
+     */
+    public int size() {
+        return currencies.size();
+    }
+
+    /**
+     * Id of an upper-case currency code, or -1 if the code is unknown
+     */
+    public int indexOf(String code) {
+        Integer id = ids.get(code);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Whether an upper-case currency code is tracked
+     */
+    public boolean contains(String code) {
+        return ids.containsKey(code);
+    }
+
+    /**
+     * Tracked currency codes in id order
+     */
+    public List<String> currencies() {
+        return currencies;
+    }
+
+    /**
+     * Currency code for an id returned by {@link #indexOf}, or null for an id below
+     * {@link #idLimit} whose currency has been removed
+     */
+    public String codeAt(int id) {
+        return codes[id];
+    }
+
+    /**
+     * Exclusive upper bound of the ids in this snapshot. Ids keep their relative
+     * order across versions; new currencies always get higher ids.
+     */
+    public int idLimit() {
+        return codes.length;
+    }
+
+    /**
+     * How rates are represented in this snapshot
+     */
+    public RateMode mode() {
+        return storage.mode;
+    }
+
+    /**
+     * Base currency of a triangulated snapshot, null in matrix mode
+     */
+    public String baseCurrency() {
+        return storage.baseCurrency;
+    }
+
+    /**
+     * Rate from one currency id to another, NaN if no rate has been generated
+     */
+    public double rate(int fromId, int toId) {
+        if (triangulated) {
+            return fromId == toId ? 1.0 : rates[toId] / rates[fromId];
+        }
+        return rates[fromId * stride + toId];
+    }
+
+    /**
+     * Visit every pair of distinct tracked currencies that has a rate, in id order
+     */
+    public void forEachRate(RateConsumer consumer) {
+        forEachRateChangedSince(-1, consumer);
+    }
+
+    /**
+     * Whether {@link #forEachRateChangedSince} and {@link #removedSince} can describe
+     * every change after the given version. False once removals after it have aged
+     * out of the log, in which case a caller has to start over from the full listing.
+     */
+    public boolean hasChangesSince(long sinceVersion) {
+        return sinceVersion >= removals.horizon && sinceVersion <= version;
+    }
+
+    /**
+     * Visit every pair with a rate written after the given version, in id order.
+     * Together with {@link #removedSince} this turns a snapshot of that version into this one.
+     */
+    public void forEachRateChangedSince(long sinceVersion, RateConsumer consumer) {
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == null) {
+                continue;
+            }
+            boolean rowChanged = triangulated && stamps[i] > sinceVersion;
+            for (int j = 0; j < codes.length; j++) {
+                if (i == j || codes[j] == null) {
+                    continue;
+                }
+                boolean changed = triangulated ? rowChanged || stamps[j] > sinceVersion
+                    : stamps[i * stride + j] > sinceVersion;
+                double rate = rate(i, j);
+                if (changed && !Double.isNaN(rate)) {
+                    consumer.accept(codes[i], codes[j], rate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Currencies removed after the given version, oldest first. A code may also be
+     * tracked again, in which case its current pairs are reported as changed.
+     */
+    public List<String> removedSince(long sinceVersion) {
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < removals.codes.length; i++) {
+            if (removals.versions[i] > sinceVersion) {
+                removed.add(removals.codes[i]);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Snapshot with several new currencies appended in one step. In matrix mode the
+     * source is asked for each new currency's rate to every tracked currency before it
+     * and reverse directions are stored as inverses. In triangulated mode it is asked
+     * for one rate from the base per new currency, and the base itself gets 1. Codes must
+     * be upper case, distinct and not yet tracked. NaN from the source leaves a pair without a rate.
+     */
+    RateSnapshot withCurrencies(List<String> newCodes, RateSource rateSource, Changes changes) {
+        int slots = codes.length;
+        int m = slots + newCodes.size();
+        if (!storage.appendableAt(slots) || m > storage.capacity) {
+            return compact(newCodes.size()).withCurrencies(newCodes, rateSource, changes);
+        }
+
+        double[] next = storage.rates;
+        long[] written = storage.stamps;
+        long nextVersion = version + 1;
+        int s = storage.capacity;
+        String[] nextCodes = Arrays.copyOf(codes, m);
+        Map<String, Integer> nextIds = new HashMap<>(ids);
+
+        for (int k = slots; k < m; k++) {
+            String code = newCodes.get(k - slots);
+            nextCodes[k] = code;
+            nextIds.put(code, k);
+            changes.added(code);
+            if (triangulated) {
+                next[k] = code.equals(storage.baseCurrency) ? 1.0 : rateSource.rate(storage.baseCurrency, code);
+                written[k] = nextVersion;
+                changes.rate(storage.baseCurrency, code, next[k]);
+                continue;
+            }
+            for (int j = 0; j < k; j++) {
+                if (nextCodes[j] != null) {
+                    double rate = rateSource.rate(code, nextCodes[j]);
+                    next[k * s + j] = rate;
+                    next[j * s + k] = 1.0 / rate;
+                    written[k * s + j] = nextVersion;
+                    written[j * s + k] = nextVersion;
+                    changes.rate(code, nextCodes[j], rate);
+                    changes.rate(nextCodes[j], code, 1.0 / rate);
+                }
+            }
+            next[k * s + k] = 1.0;
+        }
+        storage.used = m;
+
+        return new RateSnapshot(nextVersion, Collections.unmodifiableMap(nextIds), nextCodes, storage, removals);
+    }
+
+    /**
+     * Rebuilds a snapshot from consecutive logged changes. Each change drops the removed
+     * currencies, appends the added ones in order, then writes the stored rates as collected
+     * by {@link Changes}. The intermediate versions are never published, so rates are
+     * written in place into a single copy of the starting snapshot's storage: replaying a
+     * long log costs one copy plus the cells it writes, not one copy per change.
+     */
+    static final class Replay {
+        // Published with the starting snapshot, so never written in place
+        private final Storage published;
+        private RateSnapshot current;
+
+        Replay(RateSnapshot start) {
+            this.published = start.storage;
+            this.current = start;
+        }
+
+        /**
+         * Version reached so far
+         */
+        long version() {
+            return current.version;
+        }
+
+        void apply(long nextVersion, List<String> removed, List<String> added, List<StoredRate> changed) {
+            RateSnapshot next = current;
+            for (String code : removed) {
+                int id = next.indexOf(code);
+                if (id >= 0) {
+                    next = next.withoutCurrency(id, Changes.IGNORED);
+                }
+            }
+            List<String> appended = new ArrayList<>();
+            for (String code : added) {
+                if (!next.contains(code)) {
+                    appended.add(code);
+                }
+            }
+            if (!appended.isEmpty()) {
+                next = next.withCurrencies(appended, (from, to) -> Double.NaN, Changes.IGNORED);
+            }
+
+            Storage target = next.storage;
+            if (target == published && !changed.isEmpty()) {
+                target = target.copy(next.codes.length, target.capacity);
+            }
+            int s = target.capacity;
+            for (StoredRate rate : changed) {
+                int cell = next.triangulated ? next.indexOf(rate.toCurrency())
+                    : next.indexOf(rate.fromCurrency()) * s + next.indexOf(rate.toCurrency());
+                target.rates[cell] = rate.rate();
+                target.stamps[cell] = nextVersion;
+            }
+            current = new RateSnapshot(nextVersion, next.ids, next.codes, target, next.removals);
+        }
+
+        /**
+         * Snapshot after every change applied so far
+         */
+        RateSnapshot result() {
+            return current;
+        }
+    }
+
+    /**
+     * One stored rate: a matrix cell as it is, or in triangulated mode a currency's rate
+     * against the base as (base, currency, rate). No cross rates are derived.
+     */
+    record StoredRate(String fromCurrency, String toCurrency, double rate) {
+    }
+
+    /**
+     * What the {@code with*} methods changed, in the form {@link Replay#apply} takes: removed
+     * and added currencies and the stored rates written, in order. One instance may
+     * collect several consecutive steps.
+     */
+    public static class Changes {
+        /**
+         * Collects nothing, for callers that do not need the changes
+         */
+        static final Changes IGNORED = new Changes() {
+            @Override
+            void removed(String code) {
+            }
+
+            @Override
+            void added(String code) {
+            }
+
+            @Override
+            void rate(String fromCurrency, String toCurrency, double rate) {
+            }
+        };
+
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> added = new ArrayList<>();
+        private final List<StoredRate> rates = new ArrayList<>();
+
+        Changes() {
+        }
+
+        void removed(String code) {
+            removed.add(code);
+        }
+
+        void added(String code) {
+            added.add(code);
+        }
+
+        void rate(String fromCurrency, String toCurrency, double rate) {
+            rates.add(new StoredRate(fromCurrency, toCurrency, rate));
+        }
+
+        List<String> removed() {
+            return removed;
+        }
+
+        List<String> added() {
+            return added;
+        }
+
+        List<StoredRate> rates() {
+            return rates;
+        }
+    }
+
+    /**
+     * Snapshot with the rate between two tracked currencies set in both directions.
+     * Matrix mode only; triangulated rates follow from the per-currency base rates.
+     */
+    RateSnapshot withRate(int fromId, int toId, double rate, Changes changes) {
+        if (triangulated) {
+            throw new IllegalStateException("Pair rates cannot be set in triangulated mode");
+        }
+        Storage target = storage.copy(codes.length, storage.capacity);
+        target.rates[fromId * stride + toId] = rate;
+        target.rates[toId * stride + fromId] = 1.0 / rate;
+        target.stamps[fromId * stride + toId] = version + 1;
+        target.stamps[toId * stride + fromId] = version + 1;
+        changes.rate(codes[fromId], codes[toId], rate);
+        changes.rate(codes[toId], codes[fromId], 1.0 / rate);
+        return new RateSnapshot(version + 1, ids, codes, target, removals);
+    }
+
+    /**
+     * Snapshot with fresh rates from the source for every pair involving one of the
+     * selected codes (all tracked currencies when {@code selected} is null). Pairs the
+     * source has no quote for keep their current rate. Returns this snapshot if nothing changed.
+     * Published cells are never overwritten, so the rates are copied first.
+     */
+    RateSnapshot withRefreshedRates(Set<String> selected, RateSource rateSource, Changes changes) {
+        Storage target = storage.copy(codes.length, storage.capacity);
+        double[] next = target.rates;
+        long[] written = target.stamps;
+        long nextVersion = version + 1;
+        int s = target.capacity;
+        boolean changed = false;
+
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == null) {
+                continue;
+            }
+            boolean rowSelected = selected == null || selected.contains(codes[i]);
+            if (triangulated) {
+                if (rowSelected && !codes[i].equals(storage.baseCurrency)) {
+                    double rate = rateSource.rate(storage.baseCurrency, codes[i]);
+                    if (!Double.isNaN(rate)) {
+                        next[i] = rate;
+                        written[i] = nextVersion;
+                        changes.rate(storage.baseCurrency, codes[i], rate);
+                        changed = true;
+                    }
+                }
+                continue;
+            }
+            for (int j = i + 1; j < codes.length; j++) {
+                if (codes[j] != null && (rowSelected || selected.contains(codes[j]))) {
+                    double rate = rateSource.rate(codes[i], codes[j]);
+                    if (!Double.isNaN(rate)) {
+                        next[i * s + j] = rate;
+                        next[j * s + i] = 1.0 / rate;
+                        written[i * s + j] = nextVersion;
+                        written[j * s + i] = nextVersion;
+                        changes.rate(codes[i], codes[j], rate);
+                        changes.rate(codes[j], codes[i], 1.0 / rate);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        return changed ? new RateSnapshot(nextVersion, ids, codes, target, removals) : this;
+    }
+
+    /**
+     * Snapshot without a currency and every rate involving it. The matrix is left
+     * untouched; its row and column simply become unreachable.
+     */
+    RateSnapshot withoutCurrency(int id, Changes changes) {
+        String[] nextCodes = codes.clone();
+        nextCodes[id] = null;
+        Map<String, Integer> nextIds = new HashMap<>(ids);
+        nextIds.remove(codes[id]);
+        changes.removed(codes[id]);
+
+        RateSnapshot next = new RateSnapshot(version + 1, Collections.unmodifiableMap(nextIds), nextCodes, storage,
+            removals.appended(codes[id], version + 1));
+        int removed = nextCodes.length - nextIds.size();
+        return removed > MIN_CAPACITY && removed > nextIds.size() ? next.compact(0) : next;
+    }
+
+    /**
+     * Next version with tracked currencies renumbered densely into fresh storage,
+     * leaving room for {@code extra} more currencies
+     */
+    private RateSnapshot compact(int extra) {
+        int live = ids.size();
+        // Reclaiming removed rows sizes from the live count so memory shrinks with it
+        Storage target = storage.resized(extra == 0 ? grow(live, live) : grow(storage.capacity, live + extra));
+        String[] nextCodes = new String[live];
+        Map<String, Integer> nextIds = new HashMap<>();
+        int s = target.capacity;
+
+        int[] liveIds = new int[live];
+        for (int i = 0, n = 0; i < codes.length; i++) {
+            if (codes[i] != null) {
+                liveIds[n++] = i;
+            }
+        }
+        for (int ni = 0; ni < live; ni++) {
+            int i = liveIds[ni];
+            if (triangulated) {
+                target.rates[ni] = rates[i];
+                target.stamps[ni] = stamps[i];
+            } else {
+                for (int nj = 0; nj < live; nj++) {
+                    target.rates[ni * s + nj] = rates[i * stride + liveIds[nj]];
+                    target.stamps[ni * s + nj] = stamps[i * stride + liveIds[nj]];
+                }
+            }
+            nextCodes[ni] = codes[i];
+            nextIds.put(codes[i], ni);
+        }
+        target.used = live;
+
+        // Renumbering moves rates without changing them, so their stamps carry over
+        return new RateSnapshot(version + 1, Collections.unmodifiableMap(nextIds), nextCodes, target, removals);
+    }
+
+    private static int grow(int capacity, int required) {
+        return Math.max(required, Math.max(MIN_CAPACITY, capacity + (capacity >> 1)));
+    }
+
+    /**
+     * Rate matrix (or base-rate vector) shared by consecutive snapshots. Only the
+     * snapshot that owns the highest used id may append, which keeps every published
+     * cell write-once. Accessed by the single writer only.
+     */
+    private static final class Storage {
+        final RateMode mode;
+        final String baseCurrency;
+        final int capacity;
+        final double[] rates;
+        // Version that last wrote each rate
+        final long[] stamps;
+        int used;
+
+        Storage(RateMode mode, String baseCurrency, int capacity) {
+            this.mode = mode;
+            this.baseCurrency = baseCurrency;
+            this.capacity = capacity;
+            this.rates = new double[mode == RateMode.TRIANGULATED ? capacity : capacity * capacity];
+            this.stamps = new long[rates.length];
+        }
+
+        Storage resized(int newCapacity) {
+            return new Storage(mode, baseCurrency, newCapacity);
+        }
+
+        boolean appendableAt(int slots) {
+            return used == slots;
+        }
+
+        Storage copy(int slots, int newCapacity) {
+            Storage target = resized(newCapacity);
+            if (mode == RateMode.TRIANGULATED) {
+                System.arraycopy(rates, 0, target.rates, 0, slots);
+                System.arraycopy(stamps, 0, target.stamps, 0, slots);
+            } else {
+                for (int i = 0; i < slots; i++) {
+                    System.arraycopy(rates, i * capacity, target.rates, i * newCapacity, slots);
+                    System.arraycopy(stamps, i * capacity, target.stamps, i * newCapacity, slots);
+                }
+            }
+            target.used = slots;
+            return target;
+        }
+    }
+
+    /**
+     * The most recent currency removals with the version that removed them. Older
+     * entries are dropped; {@code horizon} is the earliest version still fully covered.
+     */
+    private static final class RemovalLog {
+        static final RemovalLog EMPTY = new RemovalLog(new String[0], new long[0], 0);
+
+        final String[] codes;
+        final long[] versions;
+        final long horizon;
+
+        RemovalLog(String[] codes, long[] versions, long horizon) {
+            this.codes = codes;
+            this.versions = versions;
+            this.horizon = horizon;
+        }
+
+        RemovalLog appended(String code, long version) {
+            int drop = codes.length < MAX_LOGGED_REMOVALS ? 0 : 1;
+            int n = codes.length - drop;
+            String[] nextCodes = new String[n + 1];
+            long[] nextVersions = new long[n + 1];
+            System.arraycopy(codes, drop, nextCodes, 0, n);
+            System.arraycopy(versions, drop, nextVersions, 0, n);
+            nextCodes[n] = code;
+            nextVersions[n] = version;
+            return new RemovalLog(nextCodes, nextVersions, drop == 0 ? horizon : versions[0]);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.currencyexchange.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Build-time tool writing a seed rate snapshot, restored on startup through
+ * {@code exchange.rates.snapshot.seed} instead of generating the initial rates.
+ *
+ * Usage: {@code RateSnapshotSeed <file> <USD,EUR,...> [matrix|triangulated] [base currency]}
+ */
+public final class RateSnapshotSeed {
+
+    private RateSnapshotSeed() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                "Usage: RateSnapshotSeed <file> <USD,EUR,...> [matrix|triangulated] [base currency]");
+        }
+        Path target = Path.of(args[0]);
+        RateMode mode = args.length > 2 ? RateMode.valueOf(args[2].trim().toUpperCase()) : RateMode.MATRIX;
+        String base = args.length > 3 ? args[3] : "USD";
+
+        ExchangeRateService service = new ExchangeRateService(mode, base);
+        service.addCurrencies(Arrays.stream(args[1].split(",")).map(String::trim).filter(code -> !code.isEmpty())
+                                  .map(String::toUpperCase).toList());
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        RateSnapshotStore.write(service.getSnapshot(), target);
+        System.out.println("Wrote " + service.getSnapshot().size() + " currencies to " + target);
+    }
+}
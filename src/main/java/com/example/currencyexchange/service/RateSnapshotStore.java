@@ -0,0 +1,366 @@
+package com.example.currencyexchange.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persists rate snapshots to a compact binary file so a restarted instance serves the
+ * same currencies and rates straight away instead of generating new ones.
+ *
+ * Once started, a background writer checks the published version on an interval and
+ * writes the latest snapshot when it changed, so bursts of changes cost one write. Files
+ * are replaced atomically and never seen half written. On startup the file is memory-mapped
+ * and its rate block bulk-copied into the snapshot's arrays. Without a file, a prebuilt seed
+ * snapshot (see {@link RateSnapshotSeed}) can be restored instead of generating rates.
+ *
+ * Layout (little-endian): magic, format, mode, version, currency count, base currency and
+ * codes as length-prefixed ASCII, padding to 8 bytes, the dense rates as written by
+ * {@link RateSnapshot#writeRates}, then a CRC32 of everything before it.
+ */
+@Service
+public class RateSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotStore.class);
+
+    private static final int MAGIC = 0x504E5352; // "RSNP"
+    private static final int FORMAT = 1;
+
+    private final ExchangeRateService exchangeRateService;
+    private final Path file;
+    private final String seed;
+    private final Duration writeInterval;
+    private final boolean virtualThreads;
+    // Held across the file write and fsync; a monitor would pin a virtual writer to its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private ScheduledExecutorService writer;
+    private long writtenVersion;
+
+    public RateSnapshotStore(ExchangeRateService exchangeRateService, Path file, Duration writeInterval,
+                             boolean virtualThreads) {
+        this(exchangeRateService, file, null, writeInterval, virtualThreads);
+    }
+
+    /**
+     * @param file          snapshot file; persistence is disabled when null
+     * @param seed          resource location ({@code classpath:} or a file) of a prebuilt snapshot
+     *                      restored when there is no snapshot file, or null
+     * @param writeInterval how often the writer checks for a new version
+     */
+    public RateSnapshotStore(ExchangeRateService exchangeRateService, Path file, String seed, Duration writeInterval,
+                             boolean virtualThreads) {
+        this.exchangeRateService = exchangeRateService;
+        this.file = file;
+        this.seed = seed;
+        this.writeInterval = writeInterval;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Autowired
+    public RateSnapshotStore(ExchangeRateService exchangeRateService,
+                             @Value("${exchange.rates.snapshot.file:}") String file,
+                             @Value("${exchange.rates.snapshot.seed:}") String seed,
+                             @Value("${exchange.rates.snapshot.write-interval:PT1S}") Duration writeInterval,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(exchangeRateService, file.isBlank() ? null : Path.of(file.trim()), seed.isBlank() ? null : seed.trim(),
+             writeInterval, virtualThreads);
+    }
+
+    /**
+     * Whether a snapshot file is configured
+     */
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Load the snapshot file, if there is one, or else the seed snapshot, and publish it.
+     * Returns false when neither exists, or the seed is unreadable or written for a different
+     * rate mode; the caller then starts from scratch. A snapshot file that exists but cannot
+     * be read, or was written for a different rate mode or base currency, fails instead:
+     * the write-ahead log continues from its version, and starting without it would have
+     * the writer replace it, so its currencies and rates would be lost.
+     */
+    public boolean restore() {
+        if (file == null || !Files.exists(file)) {
+            return restoreSeed();
+        }
+        RateSnapshot restored;
+        try {
+            restored = read(file);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Rate snapshot " + file + " is unreadable; move it aside to start without it", e);
+        }
+        if (!exchangeRateService.restore(restored)) {
+            throw new IllegalStateException(String.format(
+                "Rate snapshot %s was written for mode %s with base %s, which do not match the configured rate mode; "
+                    + "configure those again or move the file aside to start without it",
+                file, restored.mode(), restored.baseCurrency()));
+        }
+        lock.lock();
+        try {
+            writtenVersion = restored.version();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Restored {} currencies at version {} from {}", restored.size(), restored.version(), file);
+        return true;
+    }
+
+    private boolean restoreSeed() {
+        if (seed == null) {
+            return false;
+        }
+        try {
+            Resource resource = new DefaultResourceLoader().getResource(seed);
+            RateSnapshot restored;
+            try (InputStream in = resource.getInputStream()) {
+                restored = read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+            if (!exchangeRateService.restore(restored)) {
+                logger.warn("Ignoring seed rate snapshot {}: written for mode {} with base {}",
+                            seed, restored.mode(), restored.baseCurrency());
+                return false;
+            }
+            logger.info("Restored {} currencies at version {} from seed {}", restored.size(), restored.version(), seed);
+            // Persist it right away, so changes logged from here on have their starting point on disk
+            writeIfChanged();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable seed rate snapshot {}: {}", seed, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Start writing new versions to the snapshot file. Call after {@link #restore}, so a
+     * file that has not been read yet is never overwritten.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (file == null || writer != null) {
+                return;
+            }
+            writer = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("rate-snapshot").factory()
+                : Thread.ofPlatform().name("rate-snapshot").daemon().factory());
+            long intervalMillis = Math.max(1, writeInterval.toMillis());
+            writer.scheduleWithFixedDelay(this::writeSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write the current snapshot unless its version is already on disk. Returns whether a file was written.
+     */
+    public boolean writeIfChanged() throws IOException {
+        lock.lock();
+        try {
+            RateSnapshot snapshot = exchangeRateService.getSnapshot();
+            if (file == null || snapshot.version() == writtenVersion) {
+                return false;
+            }
+            write(snapshot, file);
+            writtenVersion = snapshot.version();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Version of the snapshot last written or restored, 0 if none
+     */
+    public long writtenVersion() {
+        lock.lock();
+        try {
+            return writtenVersion;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ScheduledExecutorService running;
+        lock.lock();
+        try {
+            running = writer;
+            writer = null;
+        } finally {
+            lock.unlock();
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdownNow();
+        // Persist whatever changed since the last tick
+        writeSafely();
+    }
+
+    private void writeSafely() {
+        try {
+            writeIfChanged();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write rate snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Write a snapshot to a temporary file next to the target, force it to disk, move it
+     * into place and force the directory, so the rename itself survives a crash
+     */
+    static void write(RateSnapshot snapshot, Path target) throws IOException {
+        List<String> codes = snapshot.currencies();
+        byte[] base = snapshot.baseCurrency() == null ? new byte[0] : codeBytes(snapshot.baseCurrency());
+        List<byte[]> encoded = new ArrayList<>(codes.size());
+        int header = 4 + 4 + 1 + 8 + 4 + 1 + base.length;
+        for (String code : codes) {
+            byte[] bytes = codeBytes(code);
+            encoded.add(bytes);
+            header += 1 + bytes.length;
+        }
+        int ratesOffset = (header + 7) & ~7;
+        long size = ratesOffset + snapshot.denseRateCount() * Double.BYTES + 4;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + codes.size() + " currencies is too large to persist");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT)
+            .put((byte) snapshot.mode().ordinal())
+            .putLong(snapshot.version())
+            .putInt(codes.size())
+            .put((byte) base.length).put(base);
+        for (byte[] bytes : encoded) {
+            buffer.put((byte) bytes.length).put(bytes);
+        }
+        buffer.position(ratesOffset);
+        snapshot.writeRates(buffer.asDoubleBuffer());
+        buffer.position(buffer.limit() - 4);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(target);
+    }
+
+    /**
+     * Force the directory holding a file to disk, making a rename into it durable
+     */
+    static void forceDirectory(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Memory-map a snapshot file, verify it and rebuild the snapshot it holds
+     */
+    static RateSnapshot read(Path source) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return read(mapped);
+    }
+
+    /**
+     * Verify the snapshot file contents in a buffer and rebuild the snapshot they hold
+     */
+    static RateSnapshot read(ByteBuffer contents) throws IOException {
+        ByteBuffer buffer = contents.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < 4 + 4 + 1 + 8 + 4 + 1 + 4 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a rate snapshot file");
+        }
+        if (buffer.getInt() != FORMAT) {
+            throw new IOException("Unsupported rate snapshot format");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(buffer.limit() - 4));
+        if (buffer.getInt(buffer.limit() - 4) != (int) crc.getValue()) {
+            throw new IOException("Rate snapshot checksum mismatch");
+        }
+
+        RateMode mode = RateMode.values()[buffer.get()];
+        long version = buffer.getLong();
+        int count = buffer.getInt();
+        String base = readCode(buffer);
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(readCode(buffer));
+        }
+
+        int ratesOffset = (buffer.position() + 7) & ~7;
+        ByteBuffer rates = buffer.duplicate().position(ratesOffset).limit(buffer.limit() - 4)
+            .slice().order(ByteOrder.LITTLE_ENDIAN);
+        long expected = mode == RateMode.TRIANGULATED ? count : (long) count * count;
+        if (rates.remaining() != expected * Double.BYTES) {
+            throw new IOException("Rate snapshot has an unexpected size");
+        }
+        return RateSnapshot.restored(mode, base.isEmpty() ? null : base, version, codes, rates.asDoubleBuffer());
+    }
+
+    /**
+     * A currency code as stored in snapshot and log files, which hold it as at most 255
+     * ASCII bytes. Rejects codes that do not fit rather than writing a file that reads
+     * back differently.
+     */
+    static byte[] codeBytes(String code) {
+        if (code.isEmpty() || code.length() > 255) {
+            throw new IllegalArgumentException("Currency code of " + code.length() + " characters cannot be stored");
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Currency code is not ASCII: " + code);
+            }
+        }
+        return code.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String readCode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.currencyexchange.service;
+
+/**
+ * Supplies exchange rates to the rate store, both for newly added currencies and
+ * on every scheduled refresh
+ */
+@FunctionalInterface
+public interface RateSource {
+
+    /**
+     * Rate from one upper-case currency code to another, or NaN if the source has no quote
+     */
+    double rate(String fromCurrency, String toCurrency);
+
+    /**
+     * Called once before each refresh, so sources backed by external data can reload it
+     */
+    default void reload() {
+    }
+}
@@ -0,0 +1,566 @@
+package com.example.currencyexchange.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of every published rate snapshot, so changes made after the last
+ * persisted snapshot survive a restart.
+ *
+ * Each entry holds the difference between two consecutive versions: removed currencies,
+ * added currencies and the stored rates written in between, exactly as the snapshot
+ * methods reported them, so logging a change costs as much as making it. Writers queue their entry
+ * under the service's writer lock and then wait outside it; a single flusher thread
+ * writes everything queued so far with one gathering write and one fsync (group commit),
+ * so concurrent writers share the cost of a sync instead of paying one each.
+ *
+ * A failed write closes the log: every later change is refused before it is published,
+ * so the service never runs ahead of what the log holds. Changes of the failed batch
+ * remain visible, but their writers get the error.
+ *
+ * Recovery replays the entries newer than the restored snapshot and cuts off a torn
+ * tail. Once the log outgrows the compaction size a fresh snapshot is written and the
+ * entries it covers are dropped from the front of the log.
+ *
+ * Entry layout (little-endian): payload length, CRC32 of the payload, then previous
+ * version, version, a code table, the removed and added currencies and the changed
+ * rates as indexes into the code table.
+ */
+@Service
+public class RateWriteAheadLog implements MutationLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateWriteAheadLog.class);
+
+    private static final int ENTRY_HEADER = 4 + 4;
+
+    private final ExchangeRateService exchangeRateService;
+    private final RateSnapshotStore snapshotStore;
+    private final Path file;
+    private final long compactBytes;
+    private final boolean virtualThreads;
+
+    // Guards the queue and commit counters; the channel is only touched by the flusher
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private long syncs;
+    private long compactThrough = -1;
+    private boolean compacting;
+    private boolean running;
+    private IOException failure;
+
+    private FileChannel channel;
+    // Size after the last flush, readable while the flusher swaps the channel
+    private volatile long size;
+    private Thread flusher;
+    private ExecutorService compactor;
+
+    /**
+     * @param file         log file; logging is disabled when null
+     * @param compactBytes log size that triggers a snapshot and compaction
+     */
+    public RateWriteAheadLog(ExchangeRateService exchangeRateService, RateSnapshotStore snapshotStore, Path file,
+                             long compactBytes, boolean virtualThreads) {
+        this.exchangeRateService = exchangeRateService;
+        this.snapshotStore = snapshotStore;
+        this.file = file;
+        this.compactBytes = compactBytes;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Autowired
+    public RateWriteAheadLog(ExchangeRateService exchangeRateService,
+                             RateSnapshotStore snapshotStore,
+                             @Value("${exchange.rates.wal.file:}") String file,
+                             @Value("${exchange.rates.wal.compact-size:64MB}") DataSize compactSize,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(exchangeRateService, snapshotStore, file.isBlank() ? null : Path.of(file.trim()),
+            compactSize.toBytes(), virtualThreads);
+    }
+
+    /**
+     * Whether a log file is configured
+     */
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Replay the log on top of the current snapshot, then start logging every change.
+     * Call after the snapshot store restored its file. Returns the number of entries
+     * replayed; 0 when logging is disabled or there was nothing newer than the snapshot.
+     * Fails when the first newer entry does not continue from the current version.
+     */
+    public int recover() throws IOException {
+        if (file == null) {
+            return 0;
+        }
+        if (!snapshotStore.isEnabled()) {
+            logger.warn("Rate snapshot file is not configured; the write-ahead log {} will not be compacted", file);
+        }
+
+        int replayed = 0;
+        long validBytes = 0;
+        RateSnapshot.Replay replay = new RateSnapshot.Replay(exchangeRateService.getSnapshot());
+        if (Files.exists(file)) {
+            // Read entry by entry rather than mapped: the file is truncated below, and a
+            // mapping cannot be released on demand
+            try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                long end = reader.size();
+                ByteBuffer payload;
+                while ((payload = readEntry(reader, validBytes, end)) != null) {
+                    validBytes += ENTRY_HEADER + payload.remaining();
+                    if (apply(replay, payload)) {
+                        replayed++;
+                    }
+                }
+                if (validBytes < end) {
+                    logger.warn("Discarding {} bytes of incomplete entries at the end of {}", end - validBytes, file);
+                }
+            }
+        }
+        // Published once, after the whole log
+        if (replayed > 0) {
+            exchangeRateService.restore(replay.result());
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        channel.force(true);
+        size = validBytes;
+
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        flusher = (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon()).name("rate-wal").start(this::flushLoop);
+        compactor = Executors.newSingleThreadExecutor(virtualThreads
+            ? Thread.ofVirtual().name("rate-wal-compact").factory()
+            : Thread.ofPlatform().name("rate-wal-compact").daemon().factory());
+        exchangeRateService.attach(this);
+
+        if (replayed > 0) {
+            logger.info("Replayed {} logged changes up to version {} from {}",
+                        replayed, exchangeRateService.getSnapshot().version(), file);
+        }
+        return replayed;
+    }
+
+    @Override
+    public long append(RateSnapshot previous, RateSnapshot next, RateSnapshot.Changes changes) {
+        lock.lock();
+        try {
+            ensureWritable();
+        } finally {
+            lock.unlock();
+        }
+        ByteBuffer entry = encode(previous, next, changes);
+        lock.lock();
+        try {
+            ensureWritable();
+            pending.add(entry);
+            queued.signal();
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refuse new entries once a write failed or the log was shut down. Caller holds the lock.
+     */
+    private void ensureWritable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Rate log " + file + " accepts no more changes", failure);
+        }
+    }
+
+    @Override
+    public void awaitDurable(long ticket) {
+        lock.lock();
+        try {
+            while (durable < ticket && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durable < ticket) {
+                throw new UncheckedIOException("Rate change could not be logged", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of fsyncs so far; below the number of logged changes when writers shared them
+     */
+    public long syncCount() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Size of the log file in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Write a snapshot of the current version and drop the log entries it covers.
+     * Runs on the compaction thread; appends continue meanwhile.
+     */
+    public void compact() throws IOException {
+        snapshotStore.writeIfChanged();
+        long version = snapshotStore.writtenVersion();
+        lock.lock();
+        try {
+            compactThrough = version;
+            queued.signal();
+            // The flusher rewrites the file between two batches
+            while (compactThrough >= 0 && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        compactor.shutdownNow();
+        lock.lock();
+        try {
+            running = false;
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join();
+
+        // Queued entries were flushed; anything appended from now on cannot be
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = new IOException("Rate log " + file + " is closed");
+            }
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<ByteBuffer> batch;
+            long upTo;
+            long truncateThrough;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && compactThrough < 0 && running) {
+                    queued.awaitUninterruptibly();
+                }
+                if (pending.isEmpty() && compactThrough < 0) {
+                    break;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                upTo = appended;
+                truncateThrough = compactThrough;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+                    long remaining = 0;
+                    for (ByteBuffer buffer : buffers) {
+                        remaining += buffer.remaining();
+                    }
+                    while (remaining > 0) {
+                        remaining -= channel.write(buffers);
+                    }
+                    channel.force(false);
+                }
+                if (truncateThrough >= 0) {
+                    dropThrough(truncateThrough);
+                }
+                size = channel.size();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write rate log {}: {}", file, e.getMessage());
+                lock.lock();
+                try {
+                    failure = e instanceof IOException io ? io : new IOException(e);
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+
+            boolean compact;
+            lock.lock();
+            try {
+                durable = upTo;
+                if (!batch.isEmpty()) {
+                    syncs++;
+                }
+                if (truncateThrough >= 0) {
+                    compactThrough = -1;
+                    compacting = false;
+                }
+                compact = !compacting && snapshotStore.isEnabled() && size >= compactBytes;
+                compacting |= compact;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (compact) {
+                compactor.execute(this::compactSafely);
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close rate log {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to compact rate log {}: {}", file, e.getMessage());
+            lock.lock();
+            try {
+                compacting = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Rewrite the log without the entries up to and including the given version. Only
+     * entry headers are read to find the first entry kept; the rest is copied channel to
+     * channel, so the log is never held in memory.
+     */
+    private void dropThrough(long version) throws IOException {
+        long before = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER + 16).order(ByteOrder.LITTLE_ENDIAN);
+        long keepFrom = 0;
+        // Every entry was checked on recovery or written since, so the versions suffice
+        while (before - keepFrom >= header.capacity()) {
+            readFully(channel, header.clear(), keepFrom);
+            int length = header.getInt(0);
+            if (length < 16 || length > before - keepFrom - ENTRY_HEADER || header.getLong(ENTRY_HEADER + 8) > version) {
+                break;
+            }
+            keepFrom += ENTRY_HEADER + length;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel rewritten = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long copied = 0;
+            while (copied < before - keepFrom) {
+                copied += channel.transferTo(keepFrom + copied, before - keepFrom - copied, rewritten);
+            }
+            rewritten.force(true);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        RateSnapshotStore.forceDirectory(file);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        logger.debug("Compacted rate log {} through version {}: {} -> {} bytes", file, version, before, channel.size());
+    }
+
+    /**
+     * Payload of the entry at the given position, or null at the end of the log or at an
+     * entry that is incomplete or fails its checksum
+     */
+    private static ByteBuffer readEntry(FileChannel channel, long position, long end) throws IOException {
+        if (end - position < ENTRY_HEADER) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, position);
+        int length = header.getInt(0);
+        int checksum = header.getInt(4);
+        if (length < 16 || length > end - position - ENTRY_HEADER) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, payload, position + ENTRY_HEADER);
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue() == checksum ? payload : null;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of rate log");
+            }
+        }
+    }
+
+    /**
+     * Apply one logged change if it follows the version replayed so far. Entries the
+     * snapshot already covers are skipped; one that leaves a gap fails recovery.
+     */
+    private boolean apply(RateSnapshot.Replay replay, ByteBuffer payload) throws IOException {
+        long previousVersion = payload.getLong();
+        long version = payload.getLong();
+        if (version <= replay.version()) {
+            return false;
+        }
+        if (previousVersion != replay.version()) {
+            // The version it continues from is gone, and everything after it depends on it
+            throw new IOException("Logged change " + previousVersion + " -> " + version + " in " + file
+                + " does not continue from version " + replay.version() + "; restore the matching snapshot"
+                + " or move the log aside to start without it");
+        }
+
+        String[] table = new String[payload.getShort() & 0xFFFF];
+        for (int i = 0; i < table.length; i++) {
+            byte[] bytes = new byte[payload.get() & 0xFF];
+            payload.get(bytes);
+            table[i] = new String(bytes, StandardCharsets.US_ASCII);
+        }
+        List<String> removed = readCodes(payload, table);
+        List<String> added = readCodes(payload, table);
+        int count = payload.getInt();
+        List<RateSnapshot.StoredRate> changed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String from = table[payload.getShort() & 0xFFFF];
+            String to = table[payload.getShort() & 0xFFFF];
+            changed.add(new RateSnapshot.StoredRate(from, to, payload.getDouble()));
+        }
+
+        replay.apply(version, removed, added, changed);
+        return true;
+    }
+
+    private static List<String> readCodes(ByteBuffer payload, String[] table) {
+        int count = payload.getShort() & 0xFFFF;
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(table[payload.getShort() & 0xFFFF]);
+        }
+        return codes;
+    }
+
+    /**
+     * Encode the change between two snapshots as one log entry, header included. Only the
+     * codes the change mentions go into its code table.
+     */
+    static ByteBuffer encode(RateSnapshot previous, RateSnapshot next, RateSnapshot.Changes changes) {
+        Map<String, Integer> table = new HashMap<>();
+        List<byte[]> codes = new ArrayList<>();
+        int[] removed = intern(changes.removed(), table, codes);
+        int[] added = intern(changes.added(), table, codes);
+        List<RateSnapshot.StoredRate> changed = changes.rates();
+        int[] cells = new int[changed.size() * 2];
+        for (int i = 0; i < changed.size(); i++) {
+            RateSnapshot.StoredRate rate = changed.get(i);
+            cells[2 * i] = intern(rate.fromCurrency(), table, codes);
+            cells[2 * i + 1] = intern(rate.toCurrency(), table, codes);
+        }
+        if (codes.size() > 0xFFFF || removed.length > 0xFFFF || added.length > 0xFFFF) {
+            throw new IllegalArgumentException("Rate change of " + codes.size() + " currencies is too large to log");
+        }
+
+        int length = 8 + 8 + 2 + 2 * 2 + 2 * (removed.length + added.length) + 4 + changed.size() * (2 + 2 + 8);
+        for (byte[] code : codes) {
+            length += 1 + code.length;
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER + length).order(ByteOrder.LITTLE_ENDIAN);
+        entry.position(ENTRY_HEADER);
+        entry.putLong(previous.version()).putLong(next.version());
+        entry.putShort((short) codes.size());
+        for (byte[] code : codes) {
+            entry.put((byte) code.length).put(code);
+        }
+        entry.putShort((short) removed.length);
+        for (int index : removed) {
+            entry.putShort((short) index);
+        }
+        entry.putShort((short) added.length);
+        for (int index : added) {
+            entry.putShort((short) index);
+        }
+        entry.putInt(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            entry.putShort((short) cells[2 * i]).putShort((short) cells[2 * i + 1]).putDouble(changed.get(i).rate());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(entry.array(), ENTRY_HEADER, length);
+        entry.putInt(0, length).putInt(4, (int) crc.getValue());
+        entry.flip();
+        return entry;
+    }
+
+    private static int[] intern(List<String> codes, Map<String, Integer> table, List<byte[]> encoded) {
+        int[] indexes = new int[codes.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = intern(codes.get(i), table, encoded);
+        }
+        return indexes;
+    }
+
+    /**
+     * Index of a code in the entry's code table, adding it when new
+     */
+    private static int intern(String code, Map<String, Integer> table, List<byte[]> encoded) {
+        Integer index = table.get(code);
+        if (index == null) {
+            index = encoded.size();
+            encoded.add(RateSnapshotStore.codeBytes(code));
+            table.put(code, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.currencyexchange.service;
+
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free fixed-point arithmetic on non-negative scaled longs.
+ *
+ * A value {@code v} at scale {@code s} stands for {@code v / 10^s}. Products are
+ * formed in 128 bits, so only a result that does not fit in a long overflows.
+ * Overflow is reported by returning {@link #OVERFLOW} rather than throwing, so
+ * callers can fall back to {@code BigDecimal} without paying for an exception.
+ */
+final class ScaledArithmetic {
+
+    static final long OVERFLOW = -1;
+
+    static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+    private static final long HALF_WORD = 1L << 32;
+    private static final long LOW_MASK = HALF_WORD - 1;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private ScaledArithmetic() {
+    }
+
+    static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * {@code value * factor} rescaled from {@code fromScale + factorScale} to {@code toScale},
+     * rounded with the given mode. Both operands must be non-negative.
+     */
+    static long multiply(long value, int fromScale, long factor, int factorScale, int toScale, RoundingMode rounding) {
+        // Non-negative operands, so the signed high word is also the unsigned one
+        long high = Math.multiplyHigh(value, factor);
+        long low = value * factor;
+
+        int shift = fromScale + factorScale - toScale;
+        if (shift < 0) {
+            if (high != 0 || low < 0 || -shift > MAX_SCALE) {
+                return OVERFLOW;
+            }
+            long scale = POWERS_OF_TEN[-shift];
+            return low > Long.MAX_VALUE / scale ? OVERFLOW : low * scale;
+        }
+        if (shift > MAX_SCALE) {
+            return OVERFLOW;
+        }
+
+        long divisor = POWERS_OF_TEN[shift];
+        if (high >= divisor) {
+            return OVERFLOW;
+        }
+        long quotient = high == 0 ? Long.divideUnsigned(low, divisor) : divideUnsigned(high, low, divisor);
+        if (quotient < 0) {
+            return OVERFLOW;
+        }
+        // The remainder is below the divisor, so the low word alone determines it
+        long remainder = low - quotient * divisor;
+        if (remainder == 0 || !roundsUp(quotient, remainder, divisor, rounding)) {
+            return quotient;
+        }
+        return quotient == Long.MAX_VALUE ? OVERFLOW : quotient + 1;
+    }
+
+    /**
+     * Whether a non-negative quotient with a non-zero remainder rounds away from zero
+     */
+    private static boolean roundsUp(long quotient, long remainder, long divisor, RoundingMode rounding) {
+        // Divisor is at most 10^18, so doubling the remainder cannot overflow
+        long twice = remainder << 1;
+        return switch (rounding) {
+            case UP, CEILING -> true;
+            case DOWN, FLOOR -> false;
+            case HALF_UP -> twice >= divisor;
+            case HALF_DOWN -> twice > divisor;
+            case HALF_EVEN -> twice > divisor || (twice == divisor && (quotient & 1) == 1);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+    }
+
+    /**
+     * Unsigned quotient of the 128-bit value {@code high:low} by {@code divisor}, which
+     * must exceed {@code high} so the quotient fits in 64 bits. Long division in 32-bit
+     * digits after normalizing the divisor (Hacker's Delight, divlu).
+     */
+    static long divideUnsigned(long high, long low, long divisor) {
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vHigh = v >>> 32;
+        long vLow = v & LOW_MASK;
+
+        long u32 = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long u10 = low << shift;
+        long u1 = u10 >>> 32;
+        long u0 = u10 & LOW_MASK;
+
+        long q1 = Long.divideUnsigned(u32, vHigh);
+        long rhat = u32 - q1 * vHigh;
+        while (q1 >= HALF_WORD || Long.compareUnsigned(q1 * vLow, (rhat << 32) + u1) > 0) {
+            q1--;
+            rhat += vHigh;
+            if (rhat >= HALF_WORD) {
+                break;
+            }
+        }
+
+        long u21 = (u32 << 32) + u1 - q1 * v;
+        long q0 = Long.divideUnsigned(u21, vHigh);
+        rhat = u21 - q0 * vHigh;
+        while (q0 >= HALF_WORD || Long.compareUnsigned(q0 * vLow, (rhat << 32) + u0) > 0) {
+            q0--;
+            rhat += vHigh;
+            if (rhat >= HALF_WORD) {
+                break;
+            }
+        }
+
+        return (q1 << 32) + q0;
+    }
+}
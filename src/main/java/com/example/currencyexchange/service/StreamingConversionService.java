@@ -0,0 +1,202 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ConversionRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts newline-delimited JSON requests into newline-delimited JSON results.
+ *
+ * Input is read one line at a time and each result is written before the next line
+ * is read, so memory stays flat regardless of input size and a slow reader on the
+ * response side throttles consumption of the request (blocking I/O is the backpressure).
+ * The reactive form splits and decodes lines the same way, so a malformed or over-long
+ * line yields an error result in both instead of ending the stream.
+ */
+@Service
+public class StreamingConversionService {
+
+    // Longest accepted request line; the remainder of a longer line is discarded
+    static final int MAX_LINE_LENGTH = 4096;
+
+    private final ConversionService conversionService;
+    private final ExchangeRateService exchangeRateService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+
+    public StreamingConversionService(ConversionService conversionService,
+                                      ExchangeRateService exchangeRateService,
+                                      ObjectMapper objectMapper) {
+        this.conversionService = conversionService;
+        this.exchangeRateService = exchangeRateService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(ConversionRequest.class);
+    }
+
+    /**
+     * Convert every line of {@code input} and write one result line per non-blank input line.
+     * Returns the number of results written.
+     */
+    public long convertStream(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        // One snapshot per stream keeps every result consistent, as in a batch
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        Map<String, Integer> ids = new HashMap<>();
+        StringBuilder line = new StringBuilder(128);
+        long count = 0;
+
+        int length;
+        while ((length = readLine(reader, line)) >= 0) {
+            String text = line.toString();
+            if (text.isBlank()) {
+                continue;
+            }
+
+            objectMapper.writeValue(generator, convertLine(snapshot, ids, text, length));
+            generator.writeRaw('\n');
+            count++;
+
+            // Flush whenever the client has nothing more buffered, so interactive
+            // producers see results promptly while bulk input is written in blocks
+            if (!reader.ready()) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return count;
+    }
+
+    /**
+     * Reactive form of {@link #convertStream(InputStream, OutputStream)}: one result per
+     * non-blank line of the request body, all against the snapshot current when the stream
+     * starts. Buffers are consumed only as fast as results are requested.
+     */
+    public Flux<BatchConversionResult> convertStream(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            RateSnapshot snapshot = exchangeRateService.getSnapshot();
+            Map<String, Integer> ids = new HashMap<>();
+            LineSplitter lines = new LineSplitter();
+            return body.concatMapIterable(lines::split)
+                .concatWith(Mono.fromSupplier(lines::finish))
+                .filter(line -> !line.text().isBlank())
+                .map(line -> convertLine(snapshot, ids, line.text(), line.length()));
+        });
+    }
+
+    /**
+     * Result for one line whose full length is {@code length}; {@code line} may hold only
+     * the start of a line that is too long
+     */
+    private BatchConversionResult convertLine(RateSnapshot snapshot, Map<String, Integer> ids, String line, int length) {
+        if (length > MAX_LINE_LENGTH) {
+            return BatchConversionResult.failure(
+                    "Request line exceeds " + MAX_LINE_LENGTH + " characters", HttpStatus.BAD_REQUEST.value());
+        }
+        ConversionRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return BatchConversionResult.failure("Malformed request line", HttpStatus.BAD_REQUEST.value());
+        }
+        return conversionService.convertItem(snapshot, ids, request);
+    }
+
+    /**
+     * Read the next line into {@code line}, keeping at most MAX_LINE_LENGTH + 1 characters.
+     * Returns the full line length (which may exceed what was kept), or -1 at end of input.
+     */
+    private static int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == '\n') {
+                return length;
+            }
+            if (c != '\r' && length++ <= MAX_LINE_LENGTH) {
+                line.append((char) c);
+            }
+        }
+        return length == 0 ? -1 : length;
+    }
+
+    /**
+     * One request line: its text, cut after MAX_LINE_LENGTH + 1 characters, and its full length
+     */
+    private record Line(String text, int length) {
+    }
+
+    /**
+     * Splits UTF-8 body buffers into lines with the same rules as {@link #readLine}. Only
+     * the current line is held, and at most MAX_LINE_LENGTH + 1 characters of it.
+     */
+    private static final class LineSplitter {
+        private final ByteArrayOutputStream kept = new ByteArrayOutputStream(128);
+        private int length;
+
+        List<Line> split(DataBuffer buffer) {
+            List<Line> lines = new ArrayList<>();
+            try {
+                while (buffer.readableByteCount() > 0) {
+                    byte b = buffer.read();
+                    if (b == '\n') {
+                        lines.add(take());
+                        continue;
+                    }
+                    if (b == '\r') {
+                        continue;
+                    }
+                    // Counted in UTF-16 chars like readLine: continuation bytes add nothing
+                    // and a four-byte sequence is a surrogate pair
+                    if ((b & 0xC0) != 0x80) {
+                        length += (b & 0xF8) == 0xF0 ? 2 : 1;
+                    }
+                    if (length <= MAX_LINE_LENGTH + 1) {
+                        kept.write(b);
+                    }
+                }
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return lines;
+        }
+
+        /**
+         * The last line when the body does not end with a newline, or null
+         */
+        Line finish() {
+            return length > 0 ? take() : null;
+        }
+
+        private Line take() {
+            Line line = new Line(kept.toString(StandardCharsets.UTF_8), length);
+            kept.reset();
+            length = 0;
+            return line;
+        }
+    }
+}
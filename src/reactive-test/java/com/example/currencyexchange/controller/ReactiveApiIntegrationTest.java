@@ -0,0 +1,311 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RateChangesResponse;
+import com.example.currencyexchange.dto.TokenResponse;
+import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.ListingCache;
+import com.example.currencyexchange.service.MutationLog;
+import com.example.currencyexchange.service.RateQueryService;
+import com.example.currencyexchange.service.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "exchange.rates.feed.poll-interval=PT0.01S")
+@ActiveProfiles("reactive")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReactiveApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @SpyBean
+    private ListingCache listingCache;
+
+    @SpyBean
+    private RateQueryService rateQueryService;
+
+    @Test
+    void testConvertCurrency() {
+        webTestClient.get().uri("/api/v1/exchange?amount=100&from=USD&to=EUR")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.fromCurrency").isEqualTo("USD")
+                .jsonPath("$.toCurrency").isEqualTo("EUR");
+    }
+
+    @Test
+    void testUnknownCurrencyIsNotFound() {
+        webTestClient.get().uri("/api/v1/exchange?amount=100&from=USD&to=XYZ")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testPrometheusRequiresAuthentication() {
+        webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testConvertNdjsonStream() {
+        String body = "{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}\n"
+                + "{\"amount\":\n"
+                + "{\"amount\":5,\"from\":\"USD\",\"to\":\"XYZ\"}\n";
+
+        List<BatchConversionResult> results = webTestClient.post().uri("/api/v1/exchange/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BatchConversionResult.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(3, results.size());
+        assertNotNull(results.get(0).getResult());
+        assertEquals(400, results.get(1).getError().status());
+        assertEquals(404, results.get(2).getError().status());
+    }
+
+    @Test
+    void testRatesRevalidateWithEtag() {
+        String etag = webTestClient.get().uri("/api/v1/rates")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBody().jsonPath("$.rates").isArray()
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/rates")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testRatesSinceEtagReturnOnlyChangedPairs() {
+        String etag = webTestClient.get().uri("/api/v1/rates")
+                .exchange()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        exchangeRateService.refreshRates(List.of("USD"));
+
+        webTestClient.get().uri(uri -> uri.path("/api/v1/rates").queryParam("since", "{etag}").build(etag))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.full").isEqualTo(false)
+                .jsonPath("$.rates.length()").isEqualTo(12);
+        webTestClient.get().uri("/api/v1/rates?since=0123abcd-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.full").isEqualTo(true)
+                .jsonPath("$.rates.length()").isEqualTo(42);
+    }
+
+    @Test
+    void testGzippedRatesHaveTheirOwnEtag() {
+        // The client inflates gzipped bodies itself and drops Content-Encoding, so the tags tell the encodings apart
+        String plain = webTestClient.get().uri("/api/v1/rates")
+                .header("Accept-Encoding", "identity")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        String gzipped = webTestClient.get().uri("/api/v1/rates")
+                .header("Accept-Encoding", "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        assertEquals(plain.replaceAll("\"$", "-gzip\""), gzipped);
+
+        webTestClient.get().uri("/api/v1/rates")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzipped)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("Vary", "Accept-Encoding");
+        webTestClient.get().uri("/api/v1/rates")
+                .header("Accept-Encoding", "gzip;q=0")
+                .header("If-None-Match", gzipped)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", plain);
+    }
+
+    @Test
+    void testRatesStreamAsNdjson() {
+        // Seven default currencies, every ordered pair
+        List<ExchangeRateResponse> rates = webTestClient.get().uri("/api/v1/rates")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ExchangeRateResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(42, rates.size());
+    }
+
+    @Test
+    void testRateChangeStreamStartsWithFullSnapshot() {
+        Flux<ServerSentEvent<RateChangesResponse>> events = webTestClient.get().uri("/api/v1/rates/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<RateChangesResponse>>() {})
+                .getResponseBody();
+
+        ServerSentEvent<RateChangesResponse> first = events.blockFirst(Duration.ofSeconds(5));
+        assertEquals("rates", first.event());
+        assertTrue(first.data().isFull());
+        assertEquals(exchangeRateService.versionTag(first.data().getVersion()), first.id());
+    }
+
+    @Test
+    void testAddCurrencyRequiresAdmin() {
+        webTestClient.post().uri("/api/v1/currencies?currency=SEK")
+                .headers(headers -> headers.setBasicAuth("user", "user123"))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.post().uri("/api/v1/currencies?currency=SEK")
+                .headers(headers -> headers.setBasicAuth("admin", "admin123"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/v1/currencies")
+                .exchange()
+                .expectBody().jsonPath("$.currencies.length()").isEqualTo(8);
+    }
+
+    @Test
+    void testBearerTokenFromBasicCredentials() {
+        String token = webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBasicAuth("admin", "admin123"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TokenResponse.class)
+                .returnResult().getResponseBody().getAccessToken();
+
+        webTestClient.post().uri("/api/v1/currencies?currency=SEK")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post().uri("/api/v1/currencies?currency=NOK")
+                .headers(headers -> headers.setBearerAuth("forged.token"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testCurrencyChangesWaitForTheLogOffTheEventLoop() {
+        List<String> waitingThreads = new CopyOnWriteArrayList<>();
+        exchangeRateService.attach(new MutationLog() {
+            @Override
+            public long append(RateSnapshot previous, RateSnapshot next, RateSnapshot.Changes changes) {
+                return 1;
+            }
+
+            @Override
+            public void awaitDurable(long ticket) {
+                waitingThreads.add(Thread.currentThread().getName());
+            }
+        });
+
+        webTestClient.post().uri("/api/v1/currencies?currency=SEK")
+                .headers(headers -> headers.setBasicAuth("admin", "admin123"))
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post().uri("/api/v1/currencies/bulk")
+                .headers(headers -> headers.setBasicAuth("admin", "admin123"))
+                .bodyValue(List.of("NOK", "DKK"))
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.delete().uri("/api/v1/currencies/SEK")
+                .headers(headers -> headers.setBasicAuth("admin", "admin123"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertEquals(3, waitingThreads.size());
+        // Neither Netty event loops nor the parallel scheduler may block
+        assertTrue(waitingThreads.stream().allMatch(name -> name.startsWith("boundedElastic")), waitingThreads::toString);
+    }
+
+    @Test
+    void testListingsAreRenderedOffTheEventLoop() {
+        List<String> renderingThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            renderingThreads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(listingCache).rates(any());
+        doAnswer(invocation -> {
+            renderingThreads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(listingCache).currencies();
+        doAnswer(invocation -> {
+            renderingThreads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(rateQueryService).query(any(), anyString(), isNull(), anyInt(), isNull());
+
+        webTestClient.get().uri("/api/v1/rates").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/currencies").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/rates?from=USD&limit=2").exchange().expectStatus().isOk();
+
+        assertEquals(3, renderingThreads.size());
+        assertTrue(renderingThreads.stream().allMatch(name -> name.startsWith("boundedElastic")), renderingThreads::toString);
+    }
+
+    @Test
+    void testRateLimitedListingIsRejected() {
+        int rejected = 0;
+        for (int i = 0; i < 40; i++) {
+            int status = webTestClient.get().uri("/api/v1/rates")
+                    .exchange()
+                    .returnResult(String.class)
+                    .getStatus().value();
+            if (status == 429) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0);
+
+        webTestClient.get().uri("/api/v1/exchange?amount=100&from=USD&to=EUR")
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
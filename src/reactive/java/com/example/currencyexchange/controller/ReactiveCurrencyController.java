@@ -0,0 +1,77 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.dto.CurrencyListResponse;
+import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ListingCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link CurrencyController}, active with the "reactive" profile.
+ * Changes wait for the writer lock and the write-ahead log's sync, and the listing may
+ * have to be rendered, so they run on the bounded elastic scheduler rather than on a
+ * Netty event loop.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/currencies")
+public class ReactiveCurrencyController {
+
+    private final CurrencyService currencyService;
+    private final ListingCache listingCache;
+
+    public ReactiveCurrencyController(CurrencyService currencyService, ListingCache listingCache) {
+        this.currencyService = currencyService;
+        this.listingCache = listingCache;
+    }
+
+    /**
+     * GET /api/v1/currencies - Retrieve all tracked currencies, rendered once per snapshot version
+     */
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getCurrencies(ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> CachedBodyResponses.of(ResponseEntity.ok(), listingCache.currencies(), exchange))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * POST /api/v1/currencies?currency={code} - Add a new currency (ADMIN only)
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Void>> addCurrency(@RequestParam("currency") String currency) {
+        return Mono.fromRunnable(() -> currencyService.addCurrency(currency))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then(Mono.just(ResponseEntity.status(HttpStatus.CREATED).<Void>build()));
+    }
+
+    /**
+     * POST /api/v1/currencies/bulk - Add a list of currencies in one step (ADMIN only)
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<CurrencyListResponse>> addCurrencies(@RequestBody List<String> currencies) {
+        return Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.CREATED)
+            .body(new CurrencyListResponse(currencyService.addCurrencies(currencies))))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * DELETE /api/v1/currencies/{code} - Delete a currency (ADMIN only)
+     */
+    @DeleteMapping("/{code}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Void>> deleteCurrency(@PathVariable("code") String code) {
+        return Mono.fromRunnable(() -> currencyService.deleteCurrency(code))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
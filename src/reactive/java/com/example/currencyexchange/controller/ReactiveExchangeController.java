@@ -0,0 +1,111 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.dto.BatchConversionResponse;
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ConversionRequest;
+import com.example.currencyexchange.dto.HotPairsResponse;
+import com.example.currencyexchange.dto.QuoteResponse;
+import com.example.currencyexchange.service.ConversionService;
+import com.example.currencyexchange.service.ExactConversionService;
+import com.example.currencyexchange.service.HotPairTracker;
+import com.example.currencyexchange.service.StreamingConversionService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link ExchangeController}, active with the "reactive" profile
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/exchange")
+public class ReactiveExchangeController {
+
+    private final ConversionService conversionService;
+    private final ExactConversionService exactConversionService;
+    private final StreamingConversionService streamingConversionService;
+    private final HotPairTracker hotPairTracker;
+
+    public ReactiveExchangeController(ConversionService conversionService,
+                                      ExactConversionService exactConversionService,
+                                      StreamingConversionService streamingConversionService,
+                                      HotPairTracker hotPairTracker) {
+        this.conversionService = conversionService;
+        this.exactConversionService = exactConversionService;
+        this.streamingConversionService = streamingConversionService;
+        this.hotPairTracker = hotPairTracker;
+    }
+
+    /**
+     * GET /api/v1/exchange?amount={amount}&from={from}&to={to} - Convert currency
+     */
+    @GetMapping
+    public Mono<?> convertCurrency(
+            @RequestParam("amount") BigDecimal amount,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+
+        if (exactConversionService.isEnabled()) {
+            return Mono.fromSupplier(() -> exactConversionService.convertCurrency(amount, from, to));
+        }
+        return Mono.fromSupplier(() -> conversionService.convertCurrency(amount.doubleValue(), from, to));
+    }
+
+    /**
+     * GET /api/v1/exchange/quote?amount={amount}&from={from}&to={to1,to2,...} - Convert one amount
+     * into several currencies
+     */
+    @GetMapping("/quote")
+    public Mono<QuoteResponse> quote(
+            @RequestParam("amount") double amount,
+            @RequestParam("from") String from,
+            @RequestParam(value = "to", required = false) List<String> to) {
+        return Mono.fromSupplier(() -> {
+            exactConversionService.rejectIfEnabled("Quoting");
+            return conversionService.quote(amount, from, to);
+        });
+    }
+
+    /**
+     * GET /api/v1/exchange/hot-pairs?limit={n} - Most converted pairs over the recent window (ADMIN only)
+     */
+    @GetMapping("/hot-pairs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<HotPairsResponse> hotPairs(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return Mono.fromSupplier(() -> hotPairTracker.top(limit));
+    }
+
+    /**
+     * POST /api/v1/exchange/batch - Convert a list of {amount, from, to} items in one request
+     */
+    @PostMapping("/batch")
+    public Mono<BatchConversionResponse> convertBatch(@RequestBody List<ConversionRequest> requests) {
+        return Mono.fromSupplier(() -> {
+            exactConversionService.rejectIfEnabled("Batch conversion");
+            return new BatchConversionResponse(conversionService.convertBatch(requests));
+        });
+    }
+
+    /**
+     * POST /api/v1/exchange/stream - Convert newline-delimited JSON items, one result line per item.
+     * Lines are decoded one by one, only as fast as results are written, so a malformed line
+     * yields an error line as in the servlet variant; all items are converted against the
+     * snapshot current when the stream starts.
+     */
+    @PostMapping(value = "/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchConversionResult> convertStream(@RequestBody Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            exactConversionService.rejectIfEnabled("Streaming conversion");
+            return streamingConversionService.convertStream(body);
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RateChangesResponse;
+import com.example.currencyexchange.exception.InvalidRequestException;
+import com.example.currencyexchange.service.ExchangeRateService;
+import com.example.currencyexchange.service.ListingCache;
+import com.example.currencyexchange.service.RateChangeFeed;
+import com.example.currencyexchange.service.RateQueryService;
+import com.example.currencyexchange.service.RateSnapshot;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@link ExchangeRateController}, active with the "reactive" profile.
+ * Bodies that may have to be rendered or compressed (a listing cache miss renders every
+ * pair, and misses wait on each other) are built on the bounded elastic scheduler rather
+ * than on a Netty event loop.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/rates")
+public class ReactiveExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+    private final RateChangeFeed rateChangeFeed;
+    private final ListingCache listingCache;
+    private final RateQueryService rateQueryService;
+
+    public ReactiveExchangeRateController(ExchangeRateService exchangeRateService,
+                                          RateChangeFeed rateChangeFeed,
+                                          ListingCache listingCache,
+                                          RateQueryService rateQueryService) {
+        this.exchangeRateService = exchangeRateService;
+        this.rateChangeFeed = rateChangeFeed;
+        this.listingCache = listingCache;
+        this.rateQueryService = rateQueryService;
+    }
+
+    /**
+     * GET /api/v1/rates - Same contract as the servlet variant: full listing from the
+     * per-version cache, {@code since} deltas or filtered pages, with ETag revalidation.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllExchangeRates(@RequestParam(required = false) String since,
+                                                       @RequestParam(required = false) String from,
+                                                       @RequestParam(required = false) String to,
+                                                       @RequestParam(required = false) String base,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String cursor,
+                                                       ServerWebExchange exchange) {
+        if (base != null && from != null && !base.equalsIgnoreCase(from)) {
+            return Mono.error(new InvalidRequestException("base and from must name the same currency"));
+        }
+        String fromCurrency = from != null ? from : base;
+        boolean filtered = fromCurrency != null || to != null || limit != null || cursor != null;
+        if (filtered && since != null) {
+            return Mono.error(new InvalidRequestException("since cannot be combined with filters or paging"));
+        }
+
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        boolean acceptsGzip = CachedBodyResponses.negotiateGzip(exchange);
+        boolean gzip = acceptsGzip && since == null && !filtered;
+        if (exchange.checkNotModified(CachedBodyResponses.etag(exchangeRateService.etagFor(snapshot), gzip))) {
+            return Mono.empty();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        Mono<ResponseEntity<?>> body;
+        if (since != null) {
+            long sinceVersion = exchangeRateService.versionOf(CachedBodyResponses.versionTag(since));
+            body = Mono.fromSupplier(() -> response.body(RateChangeFeed.changesSince(snapshot, sinceVersion)));
+        } else if (filtered) {
+            body = Mono.fromSupplier(() -> response.body(rateQueryService.query(snapshot, fromCurrency, to, limit, cursor)));
+        } else {
+            body = Mono.fromSupplier(() -> CachedBodyResponses.of(response, listingCache.rates(snapshot), gzip));
+        }
+        return body.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * GET /api/v1/rates with Accept: application/x-ndjson - Every rate of the current
+     * snapshot, one pair per line. Pairs are produced on demand, so a slow client holds
+     * back the walk over the snapshot instead of buffering the whole listing.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExchangeRateResponse> streamExchangeRates() {
+        return Flux.defer(() -> {
+            RateSnapshot snapshot = exchangeRateService.getSnapshot();
+            int limit = snapshot.idLimit();
+            return Flux.<ExchangeRateResponse, Long>generate(() -> 0L, (cell, sink) -> {
+                for (long next = cell; next < (long) limit * limit; next++) {
+                    int fromId = (int) (next / limit);
+                    int toId = (int) (next % limit);
+                    String fromCode = snapshot.codeAt(fromId);
+                    String toCode = snapshot.codeAt(toId);
+                    if (fromId == toId || fromCode == null || toCode == null) {
+                        continue;
+                    }
+                    double rate = snapshot.rate(fromId, toId);
+                    if (!Double.isNaN(rate)) {
+                        sink.next(new ExchangeRateResponse(fromCode, toCode, rate));
+                        return next + 1;
+                    }
+                }
+                sink.complete();
+                return (long) limit * limit;
+            });
+        });
+    }
+
+    /**
+     * GET /api/v1/rates/stream - Server-sent events carrying the pairs changed since the
+     * client's last version, resuming from {@code since} or Last-Event-ID. Versions
+     * published while the client is not keeping up are coalesced into one event.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<RateChangesResponse>> streamRateChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Flux<ServerSentEvent<RateChangesResponse>> changes = rateChangeFeed.changes(lastEventId != null ? lastEventId : since)
+            .map(response -> ServerSentEvent.<RateChangesResponse>builder(response)
+                .event("rates")
+                .id(exchangeRateService.versionTag(response.getVersion()))
+                .build());
+        Flux<ServerSentEvent<RateChangesResponse>> heartbeats = Flux.interval(rateChangeFeed.heartbeatInterval())
+            .onBackpressureDrop()
+            .map(tick -> ServerSentEvent.<RateChangesResponse>builder().comment("heartbeat").build());
+        return Flux.merge(changes, heartbeats);
+    }
+}
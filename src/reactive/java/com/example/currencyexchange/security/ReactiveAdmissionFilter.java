@@ -0,0 +1,63 @@
+package com.example.currencyexchange.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * WebFlux counterpart of {@link AdmissionFilter}. Latency is measured until the response
+ * completes, so streaming endpoints should not be given limits.
+ */
+public class ReactiveAdmissionFilter implements WebFilter {
+
+    private final AdmissionControl admissionControl;
+
+    public ReactiveAdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AdmissionControl.Endpoint endpoint = admissionControl.endpoint(exchange.getRequest().getPath().value());
+        if (endpoint == null) {
+            return chain.filter(exchange);
+        }
+
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        String address = remote == null ? "unknown" : remote.getHostString();
+        return ReactiveSecurityContextHolder.getContext()
+            .flatMap(context -> Mono.justOrEmpty(context.getAuthentication()))
+            .map(authentication -> AdmissionFilter.clientKey(authentication, address))
+            .defaultIfEmpty(AdmissionFilter.clientKey((Authentication) null, address))
+            .flatMap(client -> {
+                long wait = endpoint.tryAcquire(client);
+                if (wait > 0) {
+                    return reject(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS,
+                                  AdmissionFilter.retryAfterSeconds(wait), "Rate limit exceeded");
+                }
+                if (!endpoint.enter()) {
+                    return reject(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, 1, "Service overloaded");
+                }
+                long start = System.nanoTime();
+                return chain.filter(exchange).doFinally(signal -> endpoint.exit(System.nanoTime() - start));
+            });
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfter, String message) {
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(AdmissionFilter.errorBody(status, message));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.currencyexchange.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Security for the reactive variant, mirroring {@link SecurityConfig}
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Import(AdmissionControl.class)
+public class ReactiveSecurityConfig {
+
+    /**
+     * Tokens are only issued for HTTP Basic credentials, as in {@link SecurityConfig#tokenFilterChain}
+     */
+    @Bean
+    @Order(1)
+    public SecurityWebFilterChain tokenWebFilterChain(ServerHttpSecurity http, AdmissionControl admissionControl) {
+        http
+            .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/api/v1/auth/token"))
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .authorizeExchange(exchange -> exchange.anyExchange().authenticated())
+            .httpBasic(httpBasic -> {})
+            .addFilterAfter(new ReactiveAdmissionFilter(admissionControl), SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenService tokenService,
+                                                         AdmissionControl admissionControl) {
+        http
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/api/v1/currencies").permitAll()
+                .pathMatchers("/api/v1/exchange").permitAll()
+                .pathMatchers("/api/v1/exchange/quote").permitAll()
+                .pathMatchers("/api/v1/exchange/batch").permitAll()
+                .pathMatchers("/api/v1/exchange/stream").permitAll()
+                .pathMatchers("/api/v1/rates").permitAll()
+                .pathMatchers("/api/v1/rates/stream").permitAll()
+                .pathMatchers("/actuator/health").permitAll()
+                .anyExchange().authenticated()
+            )
+            .httpBasic(httpBasic -> {})
+            .addFilterBefore(new ReactiveBearerTokenFilter(tokenService), SecurityWebFiltersOrder.AUTHENTICATION)
+            .addFilterAfter(new ReactiveAdmissionFilter(admissionControl), SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    @Bean
+    public ReactiveUserDetailsService userDetailsService() {
+        return new MapReactiveUserDetailsService(SecurityConfig.users(passwordEncoder()));
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), 1024);
+    }
+
+    @Bean
+    public TokenService tokenService(@Value("${exchange.security.token.secret:}") String secret,
+                                     @Value("${exchange.security.token.ttl:PT1H}") Duration ttl) {
+        return new TokenService(secret, ttl, Clock.systemUTC());
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:5173"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.currencyexchange.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "exchange.rate-limit.endpoints=/api/v1/rates:0.1:2,/api/v1/exchange:100:100")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdmissionControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testClientOverItsRateIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/rates"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value("Rate limit exceeded"));
+
+        // Conversions have their own budget
+        mockMvc.perform(get("/api/v1/exchange").param("amount", "1").param("from", "USD").param("to", "EUR"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testClientsAreLimitedSeparately() throws Exception {
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/v1/rates").with(request -> {
+                    request.setRemoteAddr("10.0.0.2");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "alice")
+    void testAuthenticatedClientsAreLimitedByName() throws Exception {
+        for (String address : new String[] {"10.0.0.1", "10.0.0.2", "10.0.0.3"}) {
+            mockMvc.perform(get("/api/v1/rates").with(request -> {
+                request.setRemoteAddr(address);
+                return request;
+            }));
+        }
+        mockMvc.perform(get("/api/v1/rates")).andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.currencyexchange.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AuthControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/token").with(httpBasic(username, password)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(3600))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("accessToken").asText();
+    }
+
+    @Test
+    void testAdminTokenAuthorizesAddingCurrencies() throws Exception {
+        String token = token("admin", "admin123");
+
+        for (String currency : new String[] {"SEK", "NOK", "DKK"}) {
+            mockMvc.perform(post("/api/v1/currencies")
+                            .param("currency", currency)
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void testUserTokenIsForbiddenFromAdminEndpoints() throws Exception {
+        String token = token("user", "user123");
+
+        mockMvc.perform(post("/api/v1/currencies")
+                        .param("currency", "SEK")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testInvalidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/currencies")
+                        .param("currency", "SEK")
+                        .header("Authorization", "Bearer forged.token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""));
+    }
+
+    @Test
+    void testTokenRequiresValidCredentials() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/token").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/auth/token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testTokenCannotBeRenewedWithAToken() throws Exception {
+        String token = token("admin", "admin123");
+
+        mockMvc.perform(post("/api/v1/auth/token").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRepeatedBasicLoginsSucceed() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/currencies")
+                            .param("currency", "SEK")
+                            .with(httpBasic("admin", "admin123")))
+                    .andExpect(status().isCreated());
+        }
+    }
+}
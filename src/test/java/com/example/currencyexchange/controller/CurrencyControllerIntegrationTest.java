@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
@@ -78,4 +79,27 @@ class CurrencyControllerIntegrationTest {
                 .andExpect(jsonPath("$.currencies").isArray())
                 .andExpect(jsonPath("$.currencies.length()").value(9));
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testAddCurrenciesInBulk() throws Exception {
+        mockMvc.perform(post("/api/v1/currencies/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"NZD\", \"usd\", \"SGD\"]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.currencies.length()").value(2))
+                .andExpect(jsonPath("$.currencies[0]").value("NZD"));
+
+        mockMvc.perform(get("/api/v1/currencies"))
+                .andExpect(jsonPath("$.currencies.length()").value(9));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testAddCurrenciesInBulkAsUserShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/currencies/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"NZD\"]"))
+                .andExpect(status().isForbidden());
+    }
 }
@@ -1,19 +1,24 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.security.SecurityConfig;
 import com.example.currencyexchange.service.CurrencyService;
+import com.example.currencyexchange.service.ListingCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-package com.example.currencyexchange.controller;
-
-
-
 @WebMvcTest(CurrencyController.class)
+@Import(SecurityConfig.class)
+// @MockBean replaces beans at runtime, which ahead-of-time processed contexts cannot do
+@DisabledInAotMode
 class CurrencyControllerTest {
 
     @Autowired
@@ -22,6 +27,9 @@ class CurrencyControllerTest {
     @MockBean
     private CurrencyService currencyService;
 
+    @MockBean
+    private ListingCache listingCache;
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void deleteCurrency_withAdminRole_shouldReturnNoContent() throws Exception {
@@ -0,0 +1,42 @@
+package com.example.currencyexchange.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "exchange.money.mode=exact")
+@AutoConfigureMockMvc
+class ExactModeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testDoubleOnlyOperationsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/exchange/quote")
+                        .param("amount", "100")
+                        .param("from", "USD")
+                        .param("to", "EUR"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Quoting is not available in exact decimal mode")));
+
+        mockMvc.perform(post("/api/v1/exchange/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Batch conversion is not available")));
+
+        mockMvc.perform(post("/api/v1/exchange/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Streaming conversion is not available")));
+    }
+}
@@ -6,9 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -76,4 +79,84 @@ class ExchangeControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.convertedAmount").value(0));
     }
+
+    @Test
+    void testConvertBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/exchange/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"},"
+                                + "{\"amount\":5,\"from\":\"USD\",\"to\":\"XXX\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].result.fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.results[0].result.convertedAmount").exists())
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].error.status").value(404))
+                .andExpect(jsonPath("$.results[1].error.message").value("Currency not supported: XXX"));
+    }
+
+    @Test
+    void testConvertEmptyBatchShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/exchange/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch cannot be empty"));
+    }
+
+    @Test
+    void testConvertStream() throws Exception {
+        mockMvc.perform(post("/api/v1/exchange/stream")
+                        .contentType("application/x-ndjson")
+                        .content("{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}\n"
+                                + "{\"amount\":-1,\"from\":\"USD\",\"to\":\"EUR\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"fromCurrency\":\"USD\"")))
+                .andExpect(content().string(containsString("Amount cannot be negative")));
+    }
+
+    @Test
+    void testQuoteManyTargets() throws Exception {
+        mockMvc.perform(get("/api/v1/exchange/quote")
+                        .param("amount", "100")
+                        .param("from", "USD")
+                        .param("to", "EUR,GBP"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.quotes.length()").value(2))
+                .andExpect(jsonPath("$.quotes[1].toCurrency").value("GBP"));
+
+        mockMvc.perform(get("/api/v1/exchange/quote")
+                        .param("amount", "100")
+                        .param("from", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quotes.length()").value(6));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testHotPairsListMostConvertedPairs() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/exchange").param("amount", "1").param("from", "usd").param("to", "eur"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/exchange").param("amount", "1").param("from", "GBP").param("to", "JPY"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/exchange/hot-pairs").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conversions").value(4))
+                .andExpect(jsonPath("$.pairs.length()").value(1))
+                .andExpect(jsonPath("$.pairs[0].fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.pairs[0].toCurrency").value("EUR"))
+                .andExpect(jsonPath("$.pairs[0].count").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testHotPairsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/api/v1/exchange/hot-pairs"))
+                .andExpect(status().isForbidden());
+    }
 }
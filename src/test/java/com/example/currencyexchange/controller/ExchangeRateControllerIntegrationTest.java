@@ -0,0 +1,260 @@
+package com.example.currencyexchange.controller;
+
+import com.example.currencyexchange.service.ExchangeRateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "exchange.rates.feed.poll-interval=PT0.01S")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ExchangeRateControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Test
+    void testGetAllExchangeRates() throws Exception {
+        mockMvc.perform(get("/api/v1/rates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates").isArray());
+    }
+
+    @Test
+    void testRatesAreGzippedWhenAccepted() throws Exception {
+        byte[] gzipped = mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.startsWith("{\"rates\":[{\"fromCurrency\":"));
+        }
+    }
+
+    @Test
+    void testGzipIsOnlyUsedWithANonZeroWeight() throws Exception {
+        for (String refused : List.of("gzip;q=0", "gzip; q=0.0, deflate", "*;q=0", "identity", "*, gzip;q=0")) {
+            mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$.rates").isArray());
+        }
+        for (String accepted : List.of("gzip;q=0.5", "deflate, GZIP", "*", "gzip;q=1, *;q=0")) {
+            mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"));
+        }
+    }
+
+    @Test
+    void testGzippedAndPlainListingsHaveDistinctEtags() throws Exception {
+        String plain = mockMvc.perform(get("/api/v1/rates"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String gzipped = mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(plain, gzipped);
+
+        mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", "gzip").header("If-None-Match", gzipped))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+        mockMvc.perform(get("/api/v1/rates").header("If-None-Match", gzipped))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", plain));
+        mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", "gzip").header("If-None-Match", plain))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    void testUnchangedRatesReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/rates"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/rates").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        exchangeRateService.addCurrency("NZD");
+        mockMvc.perform(get("/api/v1/rates").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void testRatesSinceVersionReturnsOnlyChangedPairs() throws Exception {
+        long version = exchangeRateService.getSnapshot().version();
+        String etag = mockMvc.perform(get("/api/v1/rates"))
+                .andReturn().getResponse().getHeader("ETag");
+        exchangeRateService.addCurrency("NZD");
+        exchangeRateService.removeCurrency("JPY");
+
+        mockMvc.perform(get("/api/v1/rates").param("since", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.sinceVersion").value(version))
+                .andExpect(jsonPath("$.version").value(exchangeRateService.getSnapshot().version()))
+                .andExpect(jsonPath("$.removedCurrencies[0]").value("JPY"))
+                .andExpect(jsonPath("$.rates.length()").value(12));
+    }
+
+    @Test
+    void testFilteredRatesReturnOnePage() throws Exception {
+        String cursor = mockMvc.perform(get("/api/v1/rates").param("base", "usd").param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.length()").value(4))
+                .andExpect(jsonPath("$.rates[0].fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+        cursor = cursor.substring(cursor.indexOf("\"nextCursor\":\"") + 14, cursor.lastIndexOf('"'));
+
+        mockMvc.perform(get("/api/v1/rates").param("from", "USD").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/rates").param("to", "XXX"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Currency not supported: XXX"));
+    }
+
+    @Test
+    void testRatesSinceAcceptsEventIdsAndGzipTags() throws Exception {
+        String gzipped = mockMvc.perform(get("/api/v1/rates").header("Accept-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+        exchangeRateService.refreshRates(List.of("USD"));
+
+        mockMvc.perform(get("/api/v1/rates").param("since", gzipped))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.rates.length()").value(12));
+        long version = exchangeRateService.getSnapshot().version();
+        mockMvc.perform(get("/api/v1/rates").param("since", exchangeRateService.versionTag(version)))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.rates.length()").value(0));
+    }
+
+    @Test
+    void testRatesSinceAnotherInstanceReturnsFullListing() throws Exception {
+        long version = exchangeRateService.getSnapshot().version();
+        exchangeRateService.refreshRates(List.of("USD"));
+
+        // Same version number, issued by a restarted or different instance
+        for (String since : List.of("\"0123abcd-" + version + "\"", String.valueOf(version), "garbage")) {
+            mockMvc.perform(get("/api/v1/rates").param("since", since))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.full").value(true))
+                    .andExpect(jsonPath("$.sinceVersion").value(0))
+                    .andExpect(jsonPath("$.rates.length()").value(42));
+        }
+    }
+
+    @Test
+    void testRatesSinceZeroReturnsFullListing() throws Exception {
+        mockMvc.perform(get("/api/v1/rates").param("since", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true))
+                .andExpect(jsonPath("$.rates.length()").value(42));
+    }
+
+    @Test
+    void testRateStreamSendsFullListingThenChanges() throws Exception {
+        long version = exchangeRateService.getSnapshot().version();
+        MvcResult result = mockMvc.perform(get("/api/v1/rates/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "id:" + exchangeRateService.versionTag(version));
+        assertTrue(content.contains("event:rates"));
+        assertTrue(content.contains("\"full\":true"));
+
+        exchangeRateService.addCurrency("NZD");
+        String next = "id:" + exchangeRateService.versionTag(exchangeRateService.getSnapshot().version());
+        content = awaitContent(result, next);
+        String delta = content.substring(content.indexOf(next));
+        assertTrue(delta.contains("\"sinceVersion\":" + version));
+        assertTrue(delta.contains("\"full\":false"));
+        assertTrue(delta.contains("NZD"));
+    }
+
+    @Test
+    void testRateStreamResumesFromLastEventId() throws Exception {
+        long version = exchangeRateService.getSnapshot().version();
+        exchangeRateService.removeCurrency("JPY");
+        exchangeRateService.refreshRates(List.of("USD"));
+        long next = exchangeRateService.getSnapshot().version();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/rates/stream")
+                        .header("Last-Event-ID", exchangeRateService.versionTag(version)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "id:" + exchangeRateService.versionTag(next));
+        assertTrue(content.contains("\"removedCurrencies\":[\"JPY\"]"));
+        assertFalse(content.contains("\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\""),
+                "Pairs untouched since the resumed version are not resent");
+    }
+
+    @Test
+    void testRateStreamFromAnotherInstanceStartsOver() throws Exception {
+        long version = exchangeRateService.getSnapshot().version();
+        exchangeRateService.removeCurrency("JPY");
+        String current = "id:" + exchangeRateService.versionTag(exchangeRateService.getSnapshot().version());
+
+        // A version this process also reached, but issued by a restarted or different instance
+        for (String lastEventId : List.of("0123abcd-" + version, String.valueOf(version), "garbage")) {
+            MvcResult result = mockMvc.perform(get("/api/v1/rates/stream").header("Last-Event-ID", lastEventId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String content = awaitContent(result, current);
+            assertTrue(content.contains("\"full\":true"), content);
+            assertTrue(content.contains("\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\""));
+        }
+    }
+
+    /**
+     * Waits until the event containing {@code expected} has been written up to its
+     * terminating blank line; its id is written before its data
+     */
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!eventComplete(content, expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(eventComplete(content, expected), "Timed out waiting for " + expected + " in " + content);
+        return content;
+    }
+
+    private static boolean eventComplete(String content, String expected) {
+        int at = content.indexOf(expected);
+        return at >= 0 && content.indexOf("\n\n", at) >= 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.currencyexchange.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheusEndpointExposesExchangeMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/exchange")
+                        .param("amount", "100")
+                        .param("from", "USD")
+                        .param("to", "EUR"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("user", "user123")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("exchange_operation_seconds_bucket{operation=\"convert\"")))
+                .andExpect(content().string(containsString("exchange_pair_hits_total{pair=\"USD/EUR\",}")))
+                .andExpect(content().string(containsString("exchange_currencies ")))
+                .andExpect(content().string(containsString("exchange_snapshot_age_seconds ")))
+                .andExpect(content().string(not(containsString("operation=\"rate_lookup\",le="))))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+
+    @Test
+    void testPrometheusRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testHealthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.currencyexchange.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSerializersTest {
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper handWritten = new ObjectMapper().registerModule(ResponseSerializers.module());
+
+    private void assertSameJson(Object response) throws Exception {
+        assertEquals(reflective.writeValueAsString(response), handWritten.writeValueAsString(response));
+    }
+
+    @Test
+    void testOutputMatchesReflectiveSerialization() throws Exception {
+        assertSameJson(new ConversionResponse(100, "USD", "EUR", 92.5, 0.925));
+        assertSameJson(new ConversionResponse(0, "USD", "USD", 0, 1));
+        assertSameJson(new CurrencyListResponse(List.of("USD", "EUR", "GBP")));
+        assertSameJson(new CurrencyListResponse(List.of()));
+        assertSameJson(new CurrencyListResponse(null));
+        assertSameJson(new ErrorResponse("Currency not supported: \"XYZ\"", 404));
+        assertSameJson(new ErrorResponse(null, 500));
+        assertSameJson(new ExchangeRateResponse("GBP", "JPY", 187.123456789));
+    }
+
+    @Test
+    void testNestedResponsesUseTheSerializers() throws Exception {
+        assertSameJson(new BatchConversionResult(new ConversionResponse(10, "USD", "EUR", 9.25, 0.925), null));
+        assertSameJson(new BatchConversionResult(null, new ErrorResponse("Invalid amount", 400)));
+        assertSameJson(new ExchangeRatesListResponse(List.of(new ExchangeRateResponse("USD", "EUR", 0.925))));
+    }
+
+    @Test
+    void testRecordsAreNotIntrospected() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(ResponseSerializers.module());
+
+        assertSame(ResponseSerializers.ExchangeRateResponseSerializer.class,
+                   mapper.getSerializerProviderInstance().findValueSerializer(ExchangeRateResponse.class).getClass());
+        assertSame(ResponseSerializers.ConversionResponseSerializer.class,
+                   mapper.getSerializerProviderInstance().findValueSerializer(ConversionResponse.class).getClass());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.currencyexchange.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private AdmissionControl control(int maxClients) {
+        return new AdmissionControl("/api/v1/rates:2:3,/api/v1/exchange:100:100", maxClients,
+                                    Duration.ofMillis(100), 2, now::get);
+    }
+
+    @Test
+    void testBurstThenSteadyRate() {
+        AdmissionControl.Endpoint rates = control(100).endpoint("/api/v1/rates");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rates.tryAcquire("ip:1"));
+        }
+        long wait = rates.tryAcquire("ip:1");
+        assertEquals(Duration.ofMillis(500).toNanos(), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, rates.tryAcquire("ip:1"));
+        assertTrue(rates.tryAcquire("ip:1") > 0);
+    }
+
+    @Test
+    void testClientsAndEndpointsAreLimitedSeparately() {
+        AdmissionControl control = control(100);
+        AdmissionControl.Endpoint rates = control.endpoint("/api/v1/rates");
+        for (int i = 0; i < 3; i++) {
+            rates.tryAcquire("ip:1");
+        }
+        assertTrue(rates.tryAcquire("ip:1") > 0);
+        assertEquals(0, rates.tryAcquire("ip:2"));
+        assertEquals(0, control.endpoint("/api/v1/exchange").tryAcquire("ip:1"));
+    }
+
+    @Test
+    void testOnlyConfiguredPathsAreLimited() {
+        AdmissionControl control = control(100);
+        assertNull(control.endpoint("/api/v1/rates/stream"));
+        assertNull(new AdmissionControl(false, "/api/v1/rates:1:1", 100, Duration.ofSeconds(1), 8)
+                       .endpoint("/api/v1/rates"));
+        assertThrows(IllegalStateException.class,
+                     () -> new AdmissionControl("/api/v1/rates:0:1", 100, Duration.ZERO, 1, now::get));
+    }
+
+    @Test
+    void testRefilledClientsAreDroppedWhenFull() {
+        AdmissionControl.Endpoint rates = control(2).endpoint("/api/v1/rates");
+        rates.tryAcquire("ip:1");
+        rates.tryAcquire("ip:2");
+
+        // Both are still refilling, so a third client is admitted without being tracked
+        assertEquals(0, rates.tryAcquire("ip:3"));
+        assertEquals(2, rates.trackedClients());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, rates.tryAcquire("ip:3"));
+        assertEquals(1, rates.trackedClients());
+    }
+
+    @Test
+    void testSlowEndpointShedsBeyondMinimumConcurrency() {
+        AdmissionControl control = control(100);
+        AdmissionControl.Endpoint rates = control.endpoint("/api/v1/rates");
+        AdmissionControl.Endpoint exchange = control.endpoint("/api/v1/exchange");
+        for (int i = 0; i < 20; i++) {
+            assertTrue(rates.enter());
+            rates.exit(Duration.ofSeconds(1).toNanos());
+        }
+        assertTrue(rates.averageLatencyNanos() > Duration.ofMillis(100).toNanos());
+
+        assertTrue(rates.enter());
+        assertTrue(rates.enter());
+        assertFalse(rates.enter());
+        assertTrue(exchange.enter());
+
+        // Fast completions bring the average back under the threshold
+        for (int i = 0; i < 40; i++) {
+            rates.exit(Duration.ofMillis(1).toNanos());
+            assertTrue(rates.enter());
+        }
+        assertTrue(rates.enter());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.currencyexchange.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPasswordEncoderTest {
+
+    @Test
+    void testSuccessfulMatchIsServedFromCache() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("admin123", "hash")).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 16);
+
+        assertTrue(encoder.matches("admin123", "hash"));
+        assertTrue(encoder.matches("admin123", "hash"));
+
+        verify(delegate, times(1)).matches("admin123", "hash");
+    }
+
+    @Test
+    void testWrongPasswordIsNeverCached() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("admin123", "hash")).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 16);
+
+        assertTrue(encoder.matches("admin123", "hash"));
+        assertFalse(encoder.matches("guess", "hash"));
+        assertFalse(encoder.matches("guess", "hash"));
+
+        verify(delegate, times(2)).matches("guess", "hash");
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(anyString(), anyString())).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 2);
+
+        encoder.matches("a", "hash-a");
+        encoder.matches("b", "hash-b");
+        encoder.matches("a", "hash-a");
+        encoder.matches("c", "hash-c");
+        encoder.matches("a", "hash-a");
+        encoder.matches("b", "hash-b");
+
+        verify(delegate, times(1)).matches("a", "hash-a");
+        verify(delegate, times(2)).matches("b", "hash-b");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.currencyexchange.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+        "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+    private TokenService tokenService(String secret, Instant now) {
+        return new TokenService(secret, Duration.ofMinutes(10), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testIssuedTokenVerifiesWithNameAndAuthorities() {
+        TokenService service = tokenService("secret", NOW);
+
+        Authentication verified = service.verify(service.issue(admin));
+
+        assertNotNull(verified);
+        assertTrue(verified.isAuthenticated());
+        assertEquals("admin", verified.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), verified.getAuthorities());
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        String token = tokenService("secret", NOW).issue(admin);
+
+        assertNotNull(tokenService("secret", NOW.plus(Duration.ofMinutes(9))).verify(token));
+        assertNull(tokenService("secret", NOW.plus(Duration.ofMinutes(10))).verify(token));
+    }
+
+    @Test
+    void testTokenSignedWithAnotherKeyIsRejected() {
+        String token = tokenService("other", NOW).issue(admin);
+
+        assertNull(tokenService("secret", NOW).verify(token));
+    }
+
+    @Test
+    void testTamperedPayloadIsRejected() {
+        TokenService service = tokenService("secret", NOW);
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+            "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        String userToken = service.issue(user);
+        String adminToken = service.issue(admin);
+
+        // Admin claims with the user's signature
+        String forged = adminToken.substring(0, adminToken.indexOf('.')) + userToken.substring(userToken.indexOf('.'));
+
+        assertNull(service.verify(forged));
+        assertNull(service.verify("not-a-token"));
+        assertNull(service.verify("!!!.???"));
+    }
+}
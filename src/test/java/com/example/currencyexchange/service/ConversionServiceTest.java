@@ -1,11 +1,23 @@
 package com.example.currencyexchange.service;
 
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ConversionRequest;
 import com.example.currencyexchange.dto.ConversionResponse;
+import com.example.currencyexchange.dto.QuoteResponse;
+import com.example.currencyexchange.dto.TargetQuote;
 import com.example.currencyexchange.exception.CurrencyNotFoundException;
 import com.example.currencyexchange.exception.InvalidAmountException;
+import com.example.currencyexchange.exception.InvalidRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ConversionServiceTest {
@@ -30,11 +42,11 @@ class ConversionServiceTest {
         ConversionResponse response = conversionService.convertCurrency(100, "USD", "EUR");
         
         assertNotNull(response);
-        assertEquals(100, response.getAmount());
-        assertEquals("USD", response.getFromCurrency());
-        assertEquals("EUR", response.getToCurrency());
-        assertTrue(response.getConvertedAmount() > 0);
-        assertTrue(response.getRate() > 0);
+        assertEquals(100, response.amount());
+        assertEquals("USD", response.fromCurrency());
+        assertEquals("EUR", response.toCurrency());
+        assertTrue(response.convertedAmount() > 0);
+        assertTrue(response.rate() > 0);
     }
 
     @Test
@@ -63,14 +75,85 @@ class ConversionServiceTest {
         ConversionResponse response = conversionService.convertCurrency(0, "USD", "EUR");
         
         assertNotNull(response);
-        assertEquals(0, response.getConvertedAmount());
+        assertEquals(0, response.convertedAmount());
     }
 
     @Test
     void testConversionCalculation() {
         ConversionResponse response = conversionService.convertCurrency(100, "USD", "EUR");
         
-        double expectedAmount = 100 * response.getRate();
-        assertEquals(expectedAmount, response.getConvertedAmount(), 0.0001);
+        double expectedAmount = 100 * response.rate();
+        assertEquals(expectedAmount, response.convertedAmount(), 0.0001);
+    }
+
+    @Test
+    void testConvertBatchKeepsOrderAndReportsItemErrors() {
+        List<BatchConversionResult> results = conversionService.convertBatch(Arrays.asList(
+                new ConversionRequest(100.0, "usd", "EUR"),
+                new ConversionRequest(-1.0, "USD", "EUR"),
+                new ConversionRequest(5.0, "USD", "GBP"),
+                new ConversionRequest(null, "USD", "EUR"),
+                new ConversionRequest(10.0, "EUR", "EUR")
+        ));
+
+        assertEquals(5, results.size());
+        ConversionResponse first = results.get(0).getResult();
+        assertEquals("USD", first.fromCurrency());
+        assertEquals(100 * first.rate(), first.convertedAmount(), 0.0001);
+        assertEquals(400, results.get(1).getError().status());
+        assertEquals(404, results.get(2).getError().status());
+        assertEquals("Currency not supported: GBP", results.get(2).getError().message());
+        assertEquals(400, results.get(3).getError().status());
+        assertEquals(10, results.get(4).getResult().convertedAmount());
+    }
+
+    @Test
+    void testItemIdCacheIsKeyedByNormalizedCode() {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        Map<String, Integer> ids = new HashMap<>();
+
+        conversionService.convertItem(snapshot, ids, new ConversionRequest(1.0, "usd", "EUR"));
+        conversionService.convertItem(snapshot, ids, new ConversionRequest(1.0, "Usd", "eur"));
+        conversionService.convertItem(snapshot, ids, new ConversionRequest(1.0, "USD", "xxx"));
+
+        assertEquals(Set.of("USD", "EUR"), ids.keySet());
+    }
+
+    @Test
+    void testConvertEmptyBatchShouldThrowException() {
+        assertThrows(InvalidRequestException.class, () -> {
+            conversionService.convertBatch(Collections.emptyList());
+        });
+    }
+
+    @Test
+    void testQuoteSelectedTargets() {
+        currencyService.addCurrency("GBP");
+
+        QuoteResponse response = conversionService.quote(10, "usd", List.of("gbp", "EUR", "GBP", "USD"));
+
+        assertEquals("USD", response.getFromCurrency());
+        assertEquals(List.of("GBP", "EUR", "USD"), response.getQuotes().stream().map(TargetQuote::getToCurrency).toList());
+        TargetQuote eur = response.getQuotes().get(1);
+        assertEquals(exchangeRateService.getExchangeRate("USD", "EUR"), eur.getRate());
+        assertEquals(10 * eur.getRate(), eur.getConvertedAmount(), 0.0001);
+        assertEquals(1.0, response.getQuotes().get(2).getRate());
+    }
+
+    @Test
+    void testQuoteAllTargets() {
+        currencyService.addCurrency("GBP");
+        currencyService.addCurrency("JPY");
+
+        QuoteResponse response = conversionService.quote(1, "EUR", null);
+
+        assertEquals(List.of("USD", "GBP", "JPY"), response.getQuotes().stream().map(TargetQuote::getToCurrency).toList());
+    }
+
+    @Test
+    void testQuoteRejectsUnknownTargetOrNegativeAmount() {
+        assertThrows(CurrencyNotFoundException.class, () -> conversionService.quote(1, "USD", List.of("EUR", "XXX")));
+        assertThrows(CurrencyNotFoundException.class, () -> conversionService.quote(1, "XXX", null));
+        assertThrows(InvalidAmountException.class, () -> conversionService.quote(-1, "USD", null));
     }
 }
@@ -1,9 +1,11 @@
 package com.example.currencyexchange.service;
 
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
 import com.example.currencyexchange.exception.InvalidCurrencyException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -68,6 +70,19 @@ class CurrencyServiceTest {
         });
     }
 
+    @Test
+    void testAddCurrencyRejectsMalformedCodes() {
+        assertThrows(InvalidCurrencyException.class, () -> currencyService.addCurrency("US"));
+        assertThrows(InvalidCurrencyException.class, () -> currencyService.addCurrency("US$"));
+        assertThrows(InvalidCurrencyException.class, () -> currencyService.addCurrency("\u20ACUR"));
+        assertThrows(InvalidCurrencyException.class, () -> currencyService.addCurrency("X".repeat(300)));
+        assertThrows(InvalidCurrencyException.class, () -> currencyService.addCurrencies(List.of("EUR", "E U R")));
+        assertTrue(currencyService.getAllCurrencies().isEmpty());
+
+        currencyService.addCurrency("usdt");
+        assertTrue(currencyService.isCurrencyTracked("USDT"));
+    }
+
     @Test
     void testAddDuplicateCurrency() {
         currencyService.addCurrency("USD");
@@ -93,4 +108,45 @@ class CurrencyServiceTest {
         assertTrue(currencyService.isCurrencyTracked("usd"));
         assertTrue(currencyService.isCurrencyTracked("Usd"));
     }
+
+    @Test
+    void testDeleteCurrencyRemovesItsRates() {
+        currencyService.addCurrency("USD");
+        currencyService.addCurrency("EUR");
+        currencyService.addCurrency("GBP");
+
+        currencyService.deleteCurrency("eur");
+
+        assertFalse(currencyService.isCurrencyTracked("EUR"));
+        assertEquals(List.of("USD", "GBP"), currencyService.getAllCurrencies());
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRate("USD", "EUR"));
+    }
+
+    @Test
+    void testDeleteUnknownCurrencyShouldThrowException() {
+        assertThrows(CurrencyNotFoundException.class, () -> {
+            currencyService.deleteCurrency("USD");
+        });
+    }
+
+    @Test
+    void testAddCurrencies() {
+        currencyService.addCurrency("USD");
+
+        List<String> added = currencyService.addCurrencies(List.of("eur", "USD", " gbp ", "EUR"));
+
+        assertEquals(List.of("EUR", "GBP"), added);
+        assertEquals(List.of("USD", "EUR", "GBP"), currencyService.getAllCurrencies());
+        double usdToGbp = exchangeRateService.getExchangeRate("USD", "GBP");
+        double gbpToUsd = exchangeRateService.getExchangeRate("GBP", "USD");
+        assertEquals(1.0, usdToGbp * gbpToUsd, 0.0001);
+    }
+
+    @Test
+    void testAddCurrenciesWithEmptyCodeShouldAddNothing() {
+        assertThrows(InvalidCurrencyException.class, () -> {
+            currencyService.addCurrencies(Arrays.asList("USD", " "));
+        });
+        assertTrue(currencyService.getAllCurrencies().isEmpty());
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExactConversionResponse;
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.exception.InvalidAmountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactConversionServiceTest {
+
+    private final Map<String, Double> quotes = Map.of("USD_EUR", 0.915, "USD_JPY", 149.5, "USD_BHD", 0.376);
+    private ExchangeRateService exchangeRateService;
+    private ExactConversionService exactConversionService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateService = new ExchangeRateService(RateMode.MATRIX, null,
+                (from, to) -> quotes.containsKey(from + "_" + to)
+                        ? quotes.get(from + "_" + to)
+                        : 1.0 / quotes.getOrDefault(to + "_" + from, 1.0));
+        exchangeRateService.addCurrencies(List.of("USD", "EUR", "JPY", "BHD", "XAU"));
+        exactConversionService = new ExactConversionService(exchangeRateService, true, RoundingMode.HALF_EVEN, 10,
+                Map.of("XAU", 4));
+    }
+
+    @Test
+    void testMinorUnitsFollowIsoWithOverrides() {
+        assertEquals(2, exactConversionService.minorUnits("USD"));
+        assertEquals(0, exactConversionService.minorUnits("JPY"));
+        assertEquals(3, exactConversionService.minorUnits("BHD"));
+        assertEquals(4, exactConversionService.minorUnits("XAU"));
+        assertEquals(ExactConversionService.DEFAULT_MINOR_UNITS, exactConversionService.minorUnits("ZZZ"));
+    }
+
+    @Test
+    void testConversionIsRoundedToTargetMinorUnits() {
+        ExactConversionResponse eur = exactConversionService.convertCurrency(new BigDecimal("10.01"), "usd", "EUR");
+        assertEquals(new BigDecimal("10.01"), eur.getAmount());
+        assertEquals(new BigDecimal("0.9150000000"), eur.getRate());
+        // 10.01 * 0.915 = 9.15915
+        assertEquals(new BigDecimal("9.16"), eur.getConvertedAmount());
+
+        ExactConversionResponse jpy = exactConversionService.convertCurrency(new BigDecimal("3"), "USD", "JPY");
+        assertEquals(new BigDecimal("448"), jpy.getConvertedAmount(), "448.5 rounds half to even");
+
+        ExactConversionResponse bhd = exactConversionService.convertCurrency(new BigDecimal("1.5"), "USD", "BHD");
+        assertEquals(new BigDecimal("1.50"), bhd.getAmount());
+        assertEquals(new BigDecimal("0.564"), bhd.getConvertedAmount());
+    }
+
+    @Test
+    void testRoundingModeIsConfigurable() {
+        ExactConversionService halfUp = new ExactConversionService(exchangeRateService, true, RoundingMode.HALF_UP, 10, Map.of());
+        ExactConversionService down = new ExactConversionService(exchangeRateService, true, RoundingMode.DOWN, 10, Map.of());
+
+        assertEquals(new BigDecimal("449"), halfUp.convertCurrency(new BigDecimal("3"), "USD", "JPY").getConvertedAmount());
+        assertEquals(new BigDecimal("9.15"), down.convertCurrency(new BigDecimal("10.01"), "USD", "EUR").getConvertedAmount());
+    }
+
+    @Test
+    void testScaledPathMatchesBigDecimalAndFallsBackOnOverflow() {
+        double rate = exchangeRateService.getSnapshot().rate(0, 2);
+        for (long minor : new long[] {0, 1, 99, 12_345, 987_654_321L}) {
+            BigDecimal expected = BigDecimal.valueOf(minor, 2)
+                    .multiply(BigDecimal.valueOf(Math.round(rate * 1e10), 10))
+                    .setScale(0, RoundingMode.HALF_EVEN);
+            assertEquals(expected.longValueExact(), exactConversionService.convertMinorUnits(minor, "USD", "JPY", rate));
+        }
+        assertEquals(ScaledArithmetic.OVERFLOW,
+                exactConversionService.convertMinorUnits(Long.MAX_VALUE, "USD", "JPY", rate));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() >>> 1;
+            long factor = random.nextLong() >>> (1 + random.nextInt(40));
+            int shift = random.nextInt(ScaledArithmetic.MAX_SCALE + 1);
+            BigInteger[] expected = BigInteger.valueOf(value).multiply(BigInteger.valueOf(factor))
+                    .divideAndRemainder(BigInteger.TEN.pow(shift));
+            long actual = ScaledArithmetic.multiply(value, shift, factor, 0, 0, RoundingMode.DOWN);
+            if (expected[0].bitLength() < Long.SIZE) {
+                assertEquals(expected[0].longValueExact(), actual, value + " * " + factor + " / 10^" + shift);
+            } else {
+                assertEquals(ScaledArithmetic.OVERFLOW, actual);
+            }
+        }
+
+        BigDecimal huge = new BigDecimal("92233720368547758.07");
+        ExactConversionResponse response = exactConversionService.convertCurrency(huge, "USD", "JPY");
+        assertEquals(huge.multiply(new BigDecimal("149.5")).setScale(0, RoundingMode.HALF_EVEN), response.getConvertedAmount());
+    }
+
+    @Test
+    void testLargeRatesAtTheHighestScale() {
+        ExactConversionService exact = new ExactConversionService(exchangeRateService, true, RoundingMode.HALF_EVEN,
+                ExactConversionService.MAX_RATE_SCALE, Map.of());
+        ExactConversionResponse jpy = exact.convertCurrency(new BigDecimal("3"), "USD", "JPY");
+        assertEquals(new BigDecimal("149.500000000000"), jpy.getRate());
+        assertEquals(new BigDecimal("448"), jpy.getConvertedAmount());
+
+        // 62,500,000.125 * 10^12 does not fit in a long, so the rate goes through BigDecimal
+        ExchangeRateService gold = new ExchangeRateService(RateMode.MATRIX, null,
+                (from, to) -> from.equals("XAU") ? 62_500_000.125 : 1 / 62_500_000.125);
+        gold.addCurrencies(List.of("XAU", "VND"));
+        exact = new ExactConversionService(gold, true, RoundingMode.HALF_EVEN, ExactConversionService.MAX_RATE_SCALE,
+                Map.of("XAU", 4));
+        ExactConversionResponse vnd = exact.convertCurrency(new BigDecimal("1.5"), "XAU", "VND");
+        assertEquals(new BigDecimal("62500000.125000000000"), vnd.getRate());
+        assertEquals(new BigDecimal("93750000"), vnd.getConvertedAmount());
+        assertEquals(ScaledArithmetic.OVERFLOW, exact.convertMinorUnits(15_000, "XAU", "VND", 62_500_000.125));
+
+        assertThrows(IllegalArgumentException.class, () -> new ExactConversionService(exchangeRateService, true,
+                RoundingMode.HALF_EVEN, ExactConversionService.MAX_RATE_SCALE + 1, Map.of()));
+    }
+
+    @Test
+    void testInvalidAmounts() {
+        assertThrows(InvalidAmountException.class,
+                () -> exactConversionService.convertCurrency(new BigDecimal("1.001"), "USD", "EUR"));
+        assertThrows(InvalidAmountException.class,
+                () -> exactConversionService.convertCurrency(new BigDecimal("1.5"), "JPY", "USD"));
+        assertThrows(InvalidAmountException.class,
+                () -> exactConversionService.convertCurrency(new BigDecimal("-1"), "USD", "EUR"));
+        assertThrows(CurrencyNotFoundException.class,
+                () -> exactConversionService.convertCurrency(BigDecimal.ONE, "USD", "XXX"));
+    }
+}
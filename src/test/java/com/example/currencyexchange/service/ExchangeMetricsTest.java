@@ -0,0 +1,130 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.BatchConversionResult;
+import com.example.currencyexchange.dto.ConversionRequest;
+import com.example.currencyexchange.dto.HotPairsResponse;
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.exception.InvalidAmountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ExchangeMetrics metrics;
+    private ExchangeRateService exchangeRateService;
+    private ConversionService conversionService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ExchangeMetrics(registry, 2);
+        exchangeRateService = new ExchangeRateService(RateMode.MATRIX, null, new RandomRateSource(), metrics);
+        CurrencyService currencyService = new CurrencyService(exchangeRateService, metrics);
+        conversionService = new ConversionService(currencyService, exchangeRateService, metrics);
+        currencyService.addCurrency("USD");
+        currencyService.addCurrency("EUR");
+        currencyService.addCurrency("GBP");
+    }
+
+    private double pairHits(String pair) {
+        return registry.get("exchange.pair.hits").tag("pair", pair).counter().count();
+    }
+
+    @Test
+    void testConversionsAreTimedAndCountedPerPair() {
+        conversionService.convertCurrency(100, "usd", "eur");
+        conversionService.convertCurrency(50, "USD", "EUR");
+
+        assertEquals(2, registry.get("exchange.operation").tag("operation", "convert").timer().count());
+        assertEquals(3, registry.get("exchange.operation").tag("operation", "add_currency").timer().count());
+        assertEquals(2, pairHits("USD/EUR"));
+    }
+
+    @Test
+    void testPairsPastTheCapAreCountedTogether() {
+        exchangeRateService.getExchangeRate("USD", "EUR");
+        exchangeRateService.getExchangeRate("EUR", "USD");
+        exchangeRateService.getExchangeRate("USD", "GBP");
+        exchangeRateService.getExchangeRate("GBP", "EUR");
+        exchangeRateService.getExchangeRate("USD", "GBP");
+
+        assertEquals(1, pairHits("USD/EUR"));
+        assertEquals(1, pairHits("EUR/USD"));
+        assertEquals(3, pairHits("other"));
+        assertEquals(3, registry.get("exchange.pair.hits").counters().size());
+    }
+
+    @Test
+    void testErrorsAreCountedByOperationAndException() {
+        assertThrows(InvalidAmountException.class, () -> conversionService.convertCurrency(-1, "USD", "EUR"));
+        assertThrows(CurrencyNotFoundException.class, () -> conversionService.convertCurrency(1, "USD", "XXX"));
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRate("USD", "XXX"));
+
+        assertEquals(1, registry.get("exchange.errors")
+            .tags("operation", "convert", "exception", "InvalidAmountException").counter().count());
+        assertEquals(1, registry.get("exchange.errors")
+            .tags("operation", "convert", "exception", "CurrencyNotFoundException").counter().count());
+        assertEquals(1, registry.get("exchange.errors")
+            .tags("operation", "rate_lookup", "exception", "CurrencyNotFoundException").counter().count());
+        // Failed conversions are still timed
+        assertEquals(2, registry.get("exchange.operation").tag("operation", "convert").timer().count());
+    }
+
+    @Test
+    void testBatchQuoteAndExactConversionsAreRecorded() {
+        HotPairTracker hotPairs = new HotPairTracker(10, Duration.ofMinutes(1), 6, 1024, 4, System::nanoTime);
+        ConversionService conversions = new ConversionService(
+            new CurrencyService(exchangeRateService, metrics), exchangeRateService, metrics, hotPairs);
+        ExactConversionService exact = new ExactConversionService(
+            exchangeRateService, metrics, hotPairs, true, RoundingMode.HALF_EVEN, 10, Map.of());
+
+        List<BatchConversionResult> results = conversions.convertBatch(List.of(
+            new ConversionRequest(10.0, "USD", "EUR"),
+            new ConversionRequest(20.0, "usd", "eur"),
+            new ConversionRequest(5.0, "USD", "XXX")));
+        assertNotNull(results.get(1).getResult());
+        conversions.quote(100, "USD", List.of("EUR"));
+        exact.convertCurrency(new BigDecimal("1.50"), "USD", "EUR");
+        assertThrows(CurrencyNotFoundException.class, () -> conversions.quote(1, "USD", List.of("XXX")));
+
+        // Three batch items, one exact conversion
+        assertEquals(4, registry.get("exchange.operation").tag("operation", "convert").timer().count());
+        assertEquals(2, registry.get("exchange.operation").tag("operation", "quote").timer().count());
+        assertEquals(1, registry.get("exchange.errors")
+            .tags("operation", "convert", "exception", "CurrencyNotFoundException").counter().count());
+        assertEquals(1, registry.get("exchange.errors")
+            .tags("operation", "quote", "exception", "CurrencyNotFoundException").counter().count());
+        assertEquals(4, pairHits("USD/EUR"));
+
+        HotPairsResponse top = hotPairs.top(10);
+        assertEquals(4, top.getConversions());
+        assertEquals("USD", top.getPairs().get(0).getFromCurrency());
+        assertEquals("EUR", top.getPairs().get(0).getToCurrency());
+        assertEquals(4, top.getPairs().get(0).getCount());
+
+        // Quoting every target is not a conversion of each pair
+        conversions.quote(100, "USD", null);
+        assertEquals(3, registry.get("exchange.operation").tag("operation", "quote").timer().count());
+        assertEquals(4, pairHits("USD/EUR"));
+        assertNull(registry.find("exchange.pair.hits").tag("pair", "USD/GBP").counter());
+        assertEquals(4, hotPairs.top(10).getConversions());
+    }
+
+    @Test
+    void testSnapshotAgeRestartsOnPublish() throws InterruptedException {
+        Thread.sleep(5);
+        long before = exchangeRateService.snapshotAgeNanos();
+        exchangeRateService.addCurrencies(List.of("JPY"));
+        assertTrue(exchangeRateService.snapshotAgeNanos() < before);
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.currencyexchange.service;
 
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.model.RateRefreshResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ExchangeRateServiceTest {
@@ -55,4 +61,179 @@ class ExchangeRateServiceTest {
             exchangeRateService.getExchangeRate("GBP", "EUR");
         });
     }
+
+    @Test
+    void testAddCurrencyGeneratesRatesAgainstExistingCurrencies() {
+        exchangeRateService.addCurrency("USD");
+        exchangeRateService.addCurrency("EUR");
+        exchangeRateService.addCurrency("gbp");
+
+        double usdToGbp = exchangeRateService.getExchangeRate("USD", "GBP");
+        double gbpToUsd = exchangeRateService.getExchangeRate("gbp", "usd");
+
+        assertEquals(1.0, usdToGbp * gbpToUsd, 0.0001);
+        assertEquals(6, exchangeRateService.getAllRates().size());
+    }
+
+    @Test
+    void testRemoveCurrency() {
+        exchangeRateService.addCurrency("USD");
+        exchangeRateService.addCurrency("EUR");
+        exchangeRateService.addCurrency("GBP");
+        double eurToGbp = exchangeRateService.getExchangeRate("EUR", "GBP");
+
+        assertTrue(exchangeRateService.removeCurrency("USD"));
+        assertFalse(exchangeRateService.removeCurrency("USD"));
+
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRate("USD", "EUR"));
+        assertEquals(eurToGbp, exchangeRateService.getExchangeRate("EUR", "GBP"));
+        assertEquals(2, exchangeRateService.getAllRates().size());
+    }
+
+    @Test
+    void testMissingRateShouldThrowException() {
+        exchangeRateService.addCurrency("USD");
+
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRate("USD", "EUR"));
+    }
+
+    @Test
+    void testSnapshotVersionAdvancesOnEveryChange() {
+        RateSnapshot initial = exchangeRateService.getSnapshot();
+
+        exchangeRateService.addCurrency("USD");
+        exchangeRateService.addCurrency("EUR");
+        RateSnapshot afterAdd = exchangeRateService.getSnapshot();
+
+        exchangeRateService.removeCurrency("USD");
+        RateSnapshot afterRemove = exchangeRateService.getSnapshot();
+
+        assertTrue(afterAdd.version() > initial.version());
+        assertTrue(afterRemove.version() > afterAdd.version());
+        assertEquals(List.of("USD", "EUR"), afterAdd.currencies(), "Published snapshots must not change");
+        assertEquals(List.of("EUR"), afterRemove.currencies());
+    }
+
+    @Test
+    void testVersionTagsOnlyResolveOnTheIssuingInstance() {
+        exchangeRateService.addCurrency("USD");
+        long version = exchangeRateService.getSnapshot().version();
+        String tag = exchangeRateService.versionTag(version);
+
+        assertEquals(version, exchangeRateService.versionOf(tag));
+        assertEquals(-1, new ExchangeRateService().versionOf(tag), "Another instance reaches the same versions");
+        assertEquals(-1, exchangeRateService.versionOf(String.valueOf(version)));
+        assertEquals(-1, exchangeRateService.versionOf(tag + "x"));
+        assertEquals(-1, exchangeRateService.versionOf(null));
+    }
+
+    @Test
+    void testPublishedSnapshotUnaffectedByLaterAdds() {
+        exchangeRateService.addCurrencies(List.of("USD", "EUR", "GBP"));
+        RateSnapshot before = exchangeRateService.getSnapshot();
+        double usdToEur = before.rate(0, 1);
+
+        for (int i = 0; i < 50; i++) {
+            exchangeRateService.addCurrency("C" + i);
+        }
+
+        assertEquals(3, before.size());
+        assertEquals(List.of("USD", "EUR", "GBP"), before.currencies());
+        assertEquals(usdToEur, before.rate(0, 1));
+        assertEquals(usdToEur, exchangeRateService.getExchangeRate("USD", "EUR"));
+        assertEquals(1.0, exchangeRateService.getExchangeRate("C0", "C49") * exchangeRateService.getExchangeRate("C49", "C0"), 0.0001);
+        assertEquals(53 * 52, exchangeRateService.getAllRates().size());
+    }
+
+    @Test
+    void testRepeatedRemoveAndReAddKeepsRatesConsistent() {
+        exchangeRateService.addCurrencies(List.of("USD", "EUR", "GBP"));
+        double usdToGbp = exchangeRateService.getExchangeRate("USD", "GBP");
+
+        for (int i = 0; i < 100; i++) {
+            exchangeRateService.addCurrency("X" + i);
+            if (i % 3 != 0) {
+                assertTrue(exchangeRateService.removeCurrency("X" + i));
+            }
+        }
+        exchangeRateService.removeCurrency("EUR");
+        exchangeRateService.addCurrency("EUR");
+
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        assertEquals(3 + 34, snapshot.size());
+        assertEquals(usdToGbp, exchangeRateService.getExchangeRate("USD", "GBP"));
+        assertEquals(1.0, exchangeRateService.getExchangeRate("EUR", "X99") * exchangeRateService.getExchangeRate("X99", "EUR"), 0.0001);
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRate("USD", "X1"));
+        assertEquals(37 * 36, exchangeRateService.getAllRates().size());
+        for (String code : snapshot.currencies()) {
+            assertEquals(code, snapshot.codeAt(snapshot.indexOf(code)));
+        }
+    }
+
+    @Test
+    void testTriangulatedRatesAreArbitrageFree() {
+        ExchangeRateService triangulated = new ExchangeRateService(RateMode.TRIANGULATED, "usd");
+        triangulated.addCurrencies(List.of("EUR", "USD", "GBP", "JPY"));
+
+        double eurToGbp = triangulated.getExchangeRate("EUR", "GBP");
+        double gbpToJpy = triangulated.getExchangeRate("GBP", "JPY");
+        double eurToJpy = triangulated.getExchangeRate("EUR", "JPY");
+
+        assertEquals(eurToJpy, eurToGbp * gbpToJpy, 1e-9);
+        assertEquals(1.0, eurToGbp * triangulated.getExchangeRate("GBP", "EUR"), 1e-9);
+        assertEquals("USD", triangulated.getSnapshot().baseCurrency());
+        assertEquals(12, triangulated.getAllRates().size());
+    }
+
+    @Test
+    void testTriangulatedRatesAfterRemove() {
+        ExchangeRateService triangulated = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        triangulated.addCurrencies(List.of("USD", "EUR", "GBP"));
+        double eurToGbp = triangulated.getExchangeRate("EUR", "GBP");
+
+        triangulated.removeCurrency("USD");
+        triangulated.generateRateForCurrencyPair("EUR", "CHF");
+
+        assertEquals(eurToGbp, triangulated.getExchangeRate("EUR", "GBP"), 1e-12);
+        assertTrue(triangulated.getExchangeRate("EUR", "CHF") > 0);
+        assertThrows(CurrencyNotFoundException.class, () -> triangulated.getExchangeRate("USD", "EUR"));
+    }
+
+    @Test
+    void testRefreshRatesForSubset() {
+        Map<String, Double> quotes = new HashMap<>(Map.of("USD_EUR", 0.9, "EUR_GBP", 0.8, "USD_GBP", 0.7));
+        ExchangeRateService service = new ExchangeRateService(RateMode.MATRIX, null,
+                (from, to) -> quotes.containsKey(from + "_" + to)
+                        ? quotes.get(from + "_" + to)
+                        : 1.0 / quotes.getOrDefault(to + "_" + from, Double.NaN));
+        service.addCurrencies(List.of("USD", "EUR", "GBP"));
+        long version = service.getSnapshot().version();
+
+        quotes.put("USD_EUR", 0.95);
+        quotes.put("USD_GBP", 0.75);
+        quotes.put("EUR_GBP", 0.85);
+        RateRefreshResult result = service.refreshRates(List.of("usd"));
+
+        assertEquals(2, result.getRatesUpdated());
+        assertTrue(result.getVersion() > version);
+        assertEquals(0.95, service.getExchangeRate("USD", "EUR"));
+        assertEquals(1 / 0.75, service.getExchangeRate("GBP", "USD"), 1e-12);
+        assertEquals(0.8, service.getExchangeRate("EUR", "GBP"), "Pairs outside the subset keep their rate");
+        assertSame(result, service.getLastRefresh());
+    }
+
+    @Test
+    void testRefreshWithoutQuotesKeepsSnapshot() {
+        exchangeRateService.addCurrencies(List.of("USD", "EUR"));
+        RateSnapshot before = exchangeRateService.getSnapshot();
+
+        ExchangeRateService empty = new ExchangeRateService(RateMode.TRIANGULATED, "USD", (from, to) -> Double.NaN);
+        empty.addCurrencies(List.of("USD", "EUR"));
+        RateRefreshResult result = empty.refreshRates(null);
+
+        assertEquals(0, result.getRatesUpdated());
+        assertEquals(empty.getSnapshot().version(), result.getVersion());
+        assertTrue(exchangeRateService.refreshRates(null).getRatesUpdated() > 0);
+        assertNotEquals(before.version(), exchangeRateService.getSnapshot().version());
+    }
 }
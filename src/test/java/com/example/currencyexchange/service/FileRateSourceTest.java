@@ -0,0 +1,47 @@
+package com.example.currencyexchange.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRateSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsRatesAndInverses() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.csv"), "# from,to,rate\nusd,EUR,0.5\n\nGBP,USD,1.25\n");
+        FileRateSource source = new FileRateSource(file);
+
+        assertEquals(0.5, source.rate("USD", "EUR"));
+        assertEquals(2.0, source.rate("EUR", "USD"));
+        assertEquals(0.8, source.rate("USD", "GBP"), 1e-12);
+        assertTrue(Double.isNaN(source.rate("EUR", "GBP")));
+    }
+
+    @Test
+    void testReloadPicksUpChangesAndKeepsLastGoodFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.csv"), "USD,EUR,0.5\n");
+        FileRateSource source = new FileRateSource(file);
+
+        Files.writeString(file, "USD,EUR,0.6\n");
+        source.reload();
+        assertEquals(0.6, source.rate("USD", "EUR"));
+
+        Files.writeString(file, "USD,EUR,not-a-number\n");
+        source.reload();
+        assertEquals(0.6, source.rate("USD", "EUR"));
+    }
+
+    @Test
+    void testInvalidFileShouldThrowException() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.csv"), "USD,EUR\n");
+
+        assertThrows(IllegalArgumentException.class, () -> new FileRateSource(file));
+    }
+}
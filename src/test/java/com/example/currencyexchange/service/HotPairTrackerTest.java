@@ -0,0 +1,122 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.HotPairResponse;
+import com.example.currencyexchange.dto.HotPairsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotPairTrackerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private HotPairTracker tracker(int topK) {
+        return new HotPairTracker(topK, Duration.ofSeconds(60), 6, 1024, 4, now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static List<String> pairs(HotPairsResponse response) {
+        return response.getPairs().stream().map(p -> p.getFromCurrency() + "/" + p.getToCurrency()).toList();
+    }
+
+    @Test
+    void testHeavyHittersAreFoundAmongManyRarePairs() {
+        HotPairTracker tracker = tracker(10);
+        for (int i = 0; i < 2000; i++) {
+            tracker.record("R" + i, "X" + (i % 7));
+            if (i % 4 == 0) {
+                tracker.record("USD", "EUR");
+            }
+            if (i % 10 == 0) {
+                tracker.record("EUR", "GBP");
+            }
+        }
+
+        HotPairsResponse top = tracker.top(2);
+        assertEquals(List.of("USD/EUR", "EUR/GBP"), pairs(top));
+        assertTrue(top.getPairs().get(0).getCount() >= 500);
+        assertEquals(2000 + 500 + 200, top.getConversions());
+        assertEquals(60, top.getWindowSeconds());
+    }
+
+    @Test
+    void testCountsSlideOutOfTheWindow() {
+        HotPairTracker tracker = tracker(10);
+        for (int i = 0; i < 5; i++) {
+            tracker.record("USD", "EUR");
+        }
+        advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 3; i++) {
+            tracker.record("USD", "JPY");
+        }
+
+        HotPairsResponse both = tracker.top(10);
+        assertEquals(List.of("USD/EUR", "USD/JPY"), pairs(both));
+        assertEquals(5, both.getPairs().get(0).getCount());
+
+        // The first interval has left the window, the second is still in it
+        advance(Duration.ofSeconds(35));
+        HotPairsResponse later = tracker.top(10);
+        assertEquals(List.of("USD/JPY"), pairs(later));
+        assertEquals(3, later.getConversions());
+
+        // The first interval's bucket is reused and starts from zero
+        tracker.record("GBP", "CHF");
+        assertEquals(List.of("USD/JPY", "GBP/CHF"), pairs(tracker.top(10)));
+        assertEquals(4, tracker.top(10).getConversions());
+    }
+
+    @Test
+    void testWeakestCandidateIsReplacedOnceFull() {
+        HotPairTracker tracker = tracker(2);
+        tracker.record("USD", "EUR");
+        tracker.record("USD", "EUR");
+        tracker.record("USD", "GBP");
+        for (int i = 0; i < 3; i++) {
+            tracker.record("USD", "JPY");
+        }
+
+        HotPairsResponse top = tracker.top(10);
+        assertEquals(List.of("USD/JPY", "USD/EUR"), pairs(top));
+        assertEquals(new HotPairResponse("USD", "JPY", 3), top.getPairs().get(0));
+    }
+
+    @Test
+    void testConcurrentRecordsAreAllCounted() throws InterruptedException {
+        HotPairTracker tracker = tracker(10);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    tracker.record("USD", "EUR");
+                    tracker.record("EUR", "USD");
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        HotPairsResponse top = tracker.top(10);
+        assertEquals(160_000, top.getConversions());
+        assertEquals(80_000, top.getPairs().get(0).getCount());
+        assertEquals(80_000, top.getPairs().get(1).getCount());
+    }
+
+    @Test
+    void testDisabledTrackerRecordsNothing() {
+        HotPairTracker tracker = tracker(0);
+        tracker.record("USD", "EUR");
+        assertTrue(tracker.top(10).getPairs().isEmpty());
+        assertTrue(HotPairTracker.NONE.top(10).getPairs().isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.CurrencyListResponse;
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.ExchangeRatesListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExchangeRateService exchangeRateService;
+    private ListingCache listingCache;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateService = new ExchangeRateService();
+        exchangeRateService.addCurrencies(List.of("USD", "EUR", "GBP"));
+        listingCache = new ListingCache(exchangeRateService, objectMapper);
+    }
+
+    @Test
+    void testRatesMatchJacksonSerialization() throws Exception {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        List<ExchangeRateResponse> rates = new ArrayList<>();
+        snapshot.forEachRate((from, to, rate) -> rates.add(new ExchangeRateResponse(from, to, rate)));
+
+        byte[] expected = objectMapper.writeValueAsBytes(new ExchangeRatesListResponse(rates));
+
+        assertArrayEquals(expected, listingCache.rates(snapshot).json());
+    }
+
+    @Test
+    void testCurrenciesMatchJacksonSerialization() throws Exception {
+        byte[] expected = objectMapper.writeValueAsBytes(new CurrencyListResponse(List.of("USD", "EUR", "GBP")));
+
+        assertArrayEquals(expected, listingCache.currencies().json());
+    }
+
+    @Test
+    void testBodyIsRenderedOncePerVersion() {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        ListingCache.CachedBody first = listingCache.rates(snapshot);
+
+        assertSame(first, listingCache.rates(snapshot));
+        assertSame(first.gzip(), listingCache.rates(snapshot).gzip());
+
+        exchangeRateService.addCurrency("JPY");
+        ListingCache.CachedBody next = listingCache.rates(exchangeRateService.getSnapshot());
+        assertNotSame(first, next);
+        assertNotSame(next, listingCache.rates(snapshot), "An older snapshot does not replace the newer body");
+        assertSame(next, listingCache.rates(exchangeRateService.getSnapshot()));
+    }
+
+    @Test
+    void testGzipBodyInflatesToJson() throws Exception {
+        ListingCache.CachedBody body = listingCache.rates(exchangeRateService.getSnapshot());
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(body.json(), in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RateChangesResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateChangeFeedTest {
+
+    @Test
+    void testChangesSinceZeroIsFullListing() {
+        ExchangeRateService service = new ExchangeRateService();
+        service.addCurrencies(List.of("USD", "EUR", "GBP"));
+
+        RateChangesResponse changes = RateChangeFeed.changesSince(service.getSnapshot(), 0);
+
+        assertTrue(changes.isFull());
+        assertEquals(6, changes.getRates().size());
+        assertEquals(service.getSnapshot().version(), changes.getVersion());
+    }
+
+    @Test
+    void testChangesSinceOnlyContainRefreshedPairs() {
+        ExchangeRateService service = new ExchangeRateService();
+        service.addCurrencies(List.of("USD", "EUR", "GBP", "JPY"));
+        long version = service.getSnapshot().version();
+
+        service.refreshRates(List.of("JPY"));
+        RateChangesResponse changes = RateChangeFeed.changesSince(service.getSnapshot(), version);
+
+        assertFalse(changes.isFull());
+        assertEquals(version, changes.getSinceVersion());
+        assertEquals(6, changes.getRates().size());
+        for (ExchangeRateResponse rate : changes.getRates()) {
+            assertTrue(rate.fromCurrency().equals("JPY") || rate.toCurrency().equals("JPY"));
+            assertEquals(service.getExchangeRate(rate.fromCurrency(), rate.toCurrency()), rate.rate());
+        }
+        assertTrue(RateChangeFeed.changesSince(service.getSnapshot(), service.getSnapshot().version()).getRates().isEmpty());
+    }
+
+    @Test
+    void testChangesSinceReportRemovalsAndSurviveCompaction() {
+        ExchangeRateService service = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        service.addCurrencies(List.of("USD", "EUR", "GBP"));
+        long version = service.getSnapshot().version();
+
+        service.removeCurrency("GBP");
+        service.addCurrency("CHF");
+        // Enough churn to force the storage to be compacted in between
+        for (int i = 0; i < 20; i++) {
+            service.addCurrency("X" + i);
+            service.removeCurrency("X" + i);
+        }
+        RateChangesResponse changes = RateChangeFeed.changesSince(service.getSnapshot(), version);
+
+        assertFalse(changes.isFull());
+        assertEquals("GBP", changes.getRemovedCurrencies().get(0));
+        assertEquals(21, changes.getRemovedCurrencies().size());
+        assertEquals(4, changes.getRates().size(), "Only pairs involving CHF are new");
+        assertTrue(changes.getRates().stream()
+            .allMatch(rate -> rate.fromCurrency().equals("CHF") || rate.toCurrency().equals("CHF")));
+    }
+
+    @Test
+    void testUnknownVersionFallsBackToFullListing() {
+        ExchangeRateService service = new ExchangeRateService();
+        service.addCurrencies(List.of("USD", "EUR"));
+
+        RateChangesResponse changes = RateChangeFeed.changesSince(service.getSnapshot(), 1_000);
+
+        assertTrue(changes.isFull());
+        assertTrue(changes.getRemovedCurrencies().isEmpty());
+        assertEquals(2, changes.getRates().size());
+    }
+}
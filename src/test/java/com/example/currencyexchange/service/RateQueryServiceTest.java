@@ -0,0 +1,96 @@
+package com.example.currencyexchange.service;
+
+import com.example.currencyexchange.dto.ExchangeRateResponse;
+import com.example.currencyexchange.dto.RatePageResponse;
+import com.example.currencyexchange.exception.CurrencyNotFoundException;
+import com.example.currencyexchange.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateQueryServiceTest {
+
+    private ExchangeRateService exchangeRateService;
+    private RateQueryService rateQueryService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateService = new ExchangeRateService();
+        exchangeRateService.addCurrencies(List.of("USD", "EUR", "GBP", "JPY", "CHF"));
+        rateQueryService = new RateQueryService();
+    }
+
+    @Test
+    void testFromReturnsOneRow() {
+        RatePageResponse page = rateQueryService.query(exchangeRateService.getSnapshot(), "eur", null, null, null);
+
+        assertEquals(4, page.getRates().size());
+        assertNull(page.getNextCursor());
+        for (ExchangeRateResponse rate : page.getRates()) {
+            assertEquals("EUR", rate.fromCurrency());
+            assertEquals(exchangeRateService.getExchangeRate("EUR", rate.toCurrency()), rate.rate());
+        }
+    }
+
+    @Test
+    void testToReturnsOneColumnAndBothReturnOnePair() {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+
+        List<ExchangeRateResponse> column = rateQueryService.query(snapshot, null, "JPY", null, null).getRates();
+        assertEquals(List.of("USD", "EUR", "GBP", "CHF"), column.stream().map(ExchangeRateResponse::fromCurrency).toList());
+        assertTrue(column.stream().allMatch(rate -> rate.toCurrency().equals("JPY")));
+
+        List<ExchangeRateResponse> pair = rateQueryService.query(snapshot, "GBP", "CHF", null, null).getRates();
+        assertEquals(1, pair.size());
+        assertEquals(exchangeRateService.getExchangeRate("GBP", "CHF"), pair.get(0).rate());
+    }
+
+    @Test
+    void testPagingVisitsEveryPairOnce() {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        List<String> expected = new ArrayList<>();
+        snapshot.forEachRate((from, to, rate) -> expected.add(from + to));
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            RatePageResponse page = rateQueryService.query(snapshot, null, null, 3, cursor);
+            page.getRates().forEach(rate -> paged.add(rate.fromCurrency() + rate.toCurrency()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+        assertEquals(7, pages);
+    }
+
+    @Test
+    void testColumnPagingResumesAcrossVersions() {
+        RatePageResponse first = rateQueryService.query(exchangeRateService.getSnapshot(), null, "USD", 2, null);
+        exchangeRateService.addCurrency("NZD");
+
+        RatePageResponse rest = rateQueryService.query(exchangeRateService.getSnapshot(), null, "USD", 10, first.getNextCursor());
+
+        assertEquals(List.of("EUR", "GBP"), first.getRates().stream().map(ExchangeRateResponse::fromCurrency).toList());
+        assertEquals(List.of("JPY", "CHF", "NZD"), rest.getRates().stream().map(ExchangeRateResponse::fromCurrency).toList());
+    }
+
+    @Test
+    void testInvalidQueries() {
+        RateSnapshot snapshot = exchangeRateService.getSnapshot();
+        String cursor = rateQueryService.query(snapshot, "GBP", null, 1, null).getNextCursor();
+        exchangeRateService.removeCurrency("GBP");
+        RateSnapshot next = exchangeRateService.getSnapshot();
+
+        assertThrows(InvalidRequestException.class, () -> rateQueryService.query(snapshot, null, null, 0, null));
+        assertThrows(InvalidRequestException.class, () -> rateQueryService.query(snapshot, null, null, 10_001, null));
+        assertThrows(InvalidRequestException.class, () -> rateQueryService.query(snapshot, null, null, null, "!!"));
+        assertThrows(InvalidRequestException.class, () -> rateQueryService.query(next, null, null, null, cursor));
+        assertThrows(CurrencyNotFoundException.class, () -> rateQueryService.query(next, "GBP", null, null, null));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.currencyexchange.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private RateSnapshotStore store(ExchangeRateService service) {
+        return new RateSnapshotStore(service, dir.resolve("rates.snapshot"), Duration.ofSeconds(1), false);
+    }
+
+    @Test
+    void testMatrixSnapshotSurvivesRestart() throws IOException {
+        ExchangeRateService before = new ExchangeRateService();
+        before.addCurrencies(List.of("USD", "EUR", "GBP", "JPY"));
+        before.removeCurrency("EUR");
+        before.generateRateForCurrencyPair("USD", "CHF");
+        assertTrue(store(before).writeIfChanged());
+
+        ExchangeRateService after = new ExchangeRateService();
+        assertTrue(store(after).restore());
+
+        RateSnapshot restored = after.getSnapshot();
+        assertEquals(before.getSnapshot().version(), restored.version());
+        assertEquals(List.of("USD", "GBP", "JPY", "CHF"), restored.currencies());
+        assertEquals(before.getAllRates(), after.getAllRates());
+        assertThrows(RuntimeException.class, () -> after.getExchangeRate("GBP", "CHF"));
+    }
+
+    @Test
+    void testCodesThatCannotBeStoredAreRejected() {
+        ExchangeRateService service = new ExchangeRateService();
+        service.addCurrencies(List.of("USD", "X".repeat(256)));
+        assertThrows(IllegalArgumentException.class, () -> store(service).writeIfChanged());
+
+        ExchangeRateService nonAscii = new ExchangeRateService();
+        nonAscii.addCurrencies(List.of("USD", "\u00C9CU"));
+        assertThrows(IllegalArgumentException.class, () -> store(nonAscii).writeIfChanged());
+        assertFalse(Files.exists(dir.resolve("rates.snapshot")));
+    }
+
+    @Test
+    void testTriangulatedSnapshotSurvivesRestart() throws IOException {
+        ExchangeRateService before = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        before.addCurrencies(List.of("USD", "EUR", "GBP"));
+        store(before).writeIfChanged();
+
+        ExchangeRateService after = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        assertTrue(store(after).restore());
+        assertEquals(before.getExchangeRate("EUR", "GBP"), after.getExchangeRate("EUR", "GBP"));
+
+        // Later changes continue from the restored version
+        long restoredVersion = after.getSnapshot().version();
+        after.addCurrency("JPY");
+        assertEquals(restoredVersion + 1, after.getSnapshot().version());
+    }
+
+    @Test
+    void testRestoredSnapshotOnlyDiffsFromItsOwnVersion() throws IOException {
+        ExchangeRateService before = new ExchangeRateService();
+        before.addCurrencies(List.of("USD", "EUR"));
+        before.addCurrency("GBP");
+        store(before).writeIfChanged();
+
+        ExchangeRateService after = new ExchangeRateService();
+        store(after).restore();
+        RateSnapshot restored = after.getSnapshot();
+
+        assertFalse(restored.hasChangesSince(restored.version() - 1));
+        assertTrue(restored.hasChangesSince(restored.version()));
+    }
+
+    @Test
+    void testUnchangedVersionIsNotRewritten() throws IOException {
+        ExchangeRateService service = new ExchangeRateService();
+        RateSnapshotStore store = store(service);
+        assertFalse(store.writeIfChanged());
+
+        service.addCurrency("USD");
+        assertTrue(store.writeIfChanged());
+        assertFalse(store.writeIfChanged());
+    }
+
+    @Test
+    void testMismatchedModeFailsTheRestore() throws IOException {
+        ExchangeRateService matrix = new ExchangeRateService();
+        matrix.addCurrencies(List.of("USD", "EUR"));
+        store(matrix).writeIfChanged();
+        byte[] written = Files.readAllBytes(dir.resolve("rates.snapshot"));
+
+        ExchangeRateService triangulated = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        assertThrows(IllegalStateException.class, () -> store(triangulated).restore());
+        assertEquals(0, triangulated.getSnapshot().size());
+        assertArrayEquals(written, Files.readAllBytes(dir.resolve("rates.snapshot")));
+
+        ExchangeRateService otherBase = new ExchangeRateService(RateMode.TRIANGULATED, "EUR");
+        otherBase.addCurrencies(List.of("EUR", "GBP"));
+        new RateSnapshotStore(otherBase, dir.resolve("eur.snapshot"), Duration.ofSeconds(1), false).writeIfChanged();
+        assertThrows(IllegalStateException.class, () -> new RateSnapshotStore(
+            new ExchangeRateService(RateMode.TRIANGULATED, "USD"), dir.resolve("eur.snapshot"), Duration.ofSeconds(1), false)
+            .restore());
+    }
+
+    @Test
+    void testCorruptedFileFailsTheRestore() throws IOException {
+        ExchangeRateService before = new ExchangeRateService();
+        before.addCurrencies(List.of("USD", "EUR"));
+        store(before).writeIfChanged();
+
+        Path file = dir.resolve("rates.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 12] ^= 1;
+        Files.write(file, bytes);
+
+        ExchangeRateService after = new ExchangeRateService();
+        assertThrows(IllegalStateException.class, () -> store(after).restore());
+        assertEquals(0, after.getSnapshot().size());
+    }
+
+    @Test
+    void testMissingFileOrDisabledStoreRestoresNothing() {
+        assertFalse(store(new ExchangeRateService()).restore());
+        assertFalse(new RateSnapshotStore(new ExchangeRateService(), (Path) null, Duration.ofSeconds(1), false).restore());
+    }
+
+    @Test
+    void testSeedIsRestoredWhenThereIsNoSnapshotFile() throws IOException {
+        Path seed = dir.resolve("seed.snapshot");
+        RateSnapshotSeed.main(new String[] {seed.toString(), "usd,EUR,GBP"});
+
+        ExchangeRateService service = new ExchangeRateService();
+        Path file = dir.resolve("rates.snapshot");
+        RateSnapshotStore store = new RateSnapshotStore(service, file, "file:" + seed, Duration.ofSeconds(1), false);
+        assertTrue(store.restore());
+        assertEquals(List.of("USD", "EUR", "GBP"), service.getSnapshot().currencies());
+
+        // Written straight away, and preferred over the seed from then on
+        assertEquals(service.getSnapshot().version(), store.writtenVersion());
+        service.addCurrency("JPY");
+        store.writeIfChanged();
+        ExchangeRateService restarted = new ExchangeRateService();
+        assertTrue(new RateSnapshotStore(restarted, file, "file:" + seed, Duration.ofSeconds(1), false).restore());
+        assertEquals(4, restarted.getSnapshot().size());
+    }
+
+    @Test
+    void testMissingSeedRestoresNothing() {
+        ExchangeRateService service = new ExchangeRateService();
+        RateSnapshotStore store = new RateSnapshotStore(service, (Path) null, "classpath:missing.snapshot",
+                                                        Duration.ofSeconds(1), false);
+        assertFalse(store.restore());
+        assertEquals(0, service.getSnapshot().size());
+    }
+}
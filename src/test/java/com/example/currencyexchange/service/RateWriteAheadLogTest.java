@@ -0,0 +1,304 @@
+package com.example.currencyexchange.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateWriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<RateWriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() throws InterruptedException {
+        for (RateWriteAheadLog log : opened) {
+            log.shutdown();
+        }
+    }
+
+    private RateSnapshotStore snapshotStore(ExchangeRateService service) {
+        return new RateSnapshotStore(service, dir.resolve("rates.snapshot"), Duration.ofHours(1), false);
+    }
+
+    /**
+     * Recover a service the way startup does: snapshot first, then the log
+     */
+    private RateWriteAheadLog open(ExchangeRateService service, long compactBytes) throws IOException {
+        RateSnapshotStore store = snapshotStore(service);
+        store.restore();
+        RateWriteAheadLog log = new RateWriteAheadLog(service, store, dir.resolve("rates.wal"), compactBytes, false);
+        opened.add(log);
+        log.recover();
+        return log;
+    }
+
+    @Test
+    void testChangesAreReplayedAfterRestart() throws Exception {
+        ExchangeRateService before = new ExchangeRateService();
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR", "GBP"));
+        before.removeCurrency("EUR");
+        before.generateRateForCurrencyPair("USD", "CHF");
+        before.refreshRates(List.of("GBP"));
+        before.addCurrency("EUR");
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService();
+        open(after, Long.MAX_VALUE);
+
+        assertEquals(before.getSnapshot().version(), after.getSnapshot().version());
+        assertEquals(before.getSnapshot().currencies(), after.getSnapshot().currencies());
+        assertEquals(before.getAllRates(), after.getAllRates());
+    }
+
+    @Test
+    void testTriangulatedChangesAreReplayed() throws Exception {
+        ExchangeRateService before = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR", "GBP"));
+        before.refreshRates(null);
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService(RateMode.TRIANGULATED, "USD");
+        open(after, Long.MAX_VALUE);
+
+        assertEquals(before.getAllRates(), after.getAllRates());
+    }
+
+    @Test
+    void testOnlyChangesAfterTheSnapshotAreReplayed() throws Exception {
+        ExchangeRateService before = new ExchangeRateService();
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR"));
+        snapshotStore(before).writeIfChanged();
+        before.addCurrency("GBP");
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService();
+        RateSnapshotStore store = snapshotStore(after);
+        assertTrue(store.restore());
+        RateWriteAheadLog recovered = new RateWriteAheadLog(after, store, dir.resolve("rates.wal"), Long.MAX_VALUE, false);
+        opened.add(recovered);
+
+        assertEquals(1, recovered.recover());
+        assertEquals(before.getAllRates(), after.getAllRates());
+    }
+
+    @Test
+    void testLogThatDoesNotContinueTheSnapshotFailsRecovery() throws Exception {
+        ExchangeRateService before = new ExchangeRateService();
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR"));
+        snapshotStore(before).writeIfChanged();
+        log.compact();
+        before.addCurrency("GBP");
+        log.shutdown();
+
+        // The log now starts from the snapshot's version, which is gone
+        Files.delete(dir.resolve("rates.snapshot"));
+
+        ExchangeRateService after = new ExchangeRateService();
+        assertFalse(snapshotStore(after).restore());
+        RateWriteAheadLog recovered = new RateWriteAheadLog(after, snapshotStore(after), dir.resolve("rates.wal"),
+                                                            Long.MAX_VALUE, false);
+        opened.add(recovered);
+
+        assertThrows(IOException.class, recovered::recover);
+        assertEquals(0, after.getSnapshot().size());
+    }
+
+    @Test
+    void testReplayWritesOneCopyAndLeavesTheStartUntouched() {
+        ExchangeRateService service = new ExchangeRateService();
+        service.addCurrencies(List.of("USD", "EUR", "GBP"));
+        RateSnapshot start = service.getSnapshot();
+        double usdToEur = start.rate(start.indexOf("USD"), start.indexOf("EUR"));
+
+        RateSnapshot.Replay replay = new RateSnapshot.Replay(start);
+        for (int i = 1; i <= 100; i++) {
+            replay.apply(start.version() + i, List.of(), List.of(),
+                List.of(new RateSnapshot.StoredRate("USD", "EUR", i)));
+        }
+        replay.apply(start.version() + 101, List.of("GBP"), List.of("CHF"),
+            List.of(new RateSnapshot.StoredRate("USD", "CHF", 2.0)));
+        RateSnapshot result = replay.result();
+
+        assertEquals(start.version() + 101, result.version());
+        assertEquals(List.of("USD", "EUR", "CHF"), result.currencies());
+        assertEquals(100.0, result.rate(result.indexOf("USD"), result.indexOf("EUR")));
+        assertEquals(2.0, result.rate(result.indexOf("USD"), result.indexOf("CHF")));
+        assertEquals(usdToEur, start.rate(start.indexOf("USD"), start.indexOf("EUR")), "Published cells are never overwritten");
+        assertEquals(List.of("USD", "EUR", "GBP"), start.currencies());
+    }
+
+    @Test
+    void testTornTailIsDiscarded() throws Exception {
+        ExchangeRateService before = new ExchangeRateService();
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR"));
+        long intact = log.size();
+        before.addCurrency("GBP");
+        log.shutdown();
+
+        // Lose the end of the last entry, as a crash during its write would
+        Path file = dir.resolve("rates.wal");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        ExchangeRateService after = new ExchangeRateService();
+        RateWriteAheadLog recovered = open(after, Long.MAX_VALUE);
+
+        assertEquals(List.of("USD", "EUR"), after.getSnapshot().currencies());
+        assertEquals(intact, recovered.size());
+
+        // Logging continues after the last intact entry
+        after.addCurrency("JPY");
+        recovered.shutdown();
+        ExchangeRateService again = new ExchangeRateService();
+        open(again, Long.MAX_VALUE);
+        assertEquals(List.of("USD", "EUR", "JPY"), again.getSnapshot().currencies());
+    }
+
+    @Test
+    void testCompactionDropsEntriesCoveredBySnapshot() throws Exception {
+        ExchangeRateService before = new ExchangeRateService();
+        RateWriteAheadLog log = open(before, Long.MAX_VALUE);
+        before.addCurrencies(List.of("USD", "EUR", "GBP"));
+        before.refreshRates(null);
+        assertTrue(log.size() > 0);
+
+        log.compact();
+        assertEquals(0, log.size());
+
+        before.addCurrency("JPY");
+        assertTrue(log.size() > 0);
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService();
+        open(after, Long.MAX_VALUE);
+        assertEquals(before.getAllRates(), after.getAllRates());
+    }
+
+    @Test
+    void testLogIsCompactedOnceItReachesTheLimit() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        RateWriteAheadLog log = open(service, 512);
+        // One entry of 100 rates, well past the limit
+        service.addCurrencies(List.of("USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "SEK", "NOK", "DKK"));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (log.size() >= 512 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(log.size() < 512);
+        assertEquals(service.getSnapshot().version(), RateSnapshotStore.read(dir.resolve("rates.snapshot")).version());
+    }
+
+    @Test
+    void testConcurrentWritersShareSyncs() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        RateWriteAheadLog log = open(service, Long.MAX_VALUE);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String code = "C" + i;
+            results.add(writers.submit(() -> service.addCurrency(code)));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        writers.shutdown();
+
+        // Every change returned only once durable; writers arriving during a sync share the next one
+        assertTrue(log.syncCount() <= 200);
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService();
+        open(after, Long.MAX_VALUE);
+        assertEquals(200, after.getSnapshot().size());
+        assertEquals(service.getAllRates(), after.getAllRates());
+    }
+
+    @Test
+    void testChangesFailOnceTheLogIsClosed() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        RateWriteAheadLog log = open(service, Long.MAX_VALUE);
+        log.shutdown();
+
+        assertThrows(RuntimeException.class, () -> service.addCurrency("USD"));
+        assertFalse(service.getSnapshot().contains("USD"));
+    }
+
+    @Test
+    void testChangesAreRefusedAfterAFailedWrite() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        RateWriteAheadLog log = open(service, Long.MAX_VALUE);
+        service.addCurrencies(List.of("USD", "EUR"));
+
+        // Compaction rewrites the log through this path, which cannot be opened as a file
+        Files.createDirectories(dir.resolve("rates.wal.tmp").resolve("blocked"));
+        log.compact();
+
+        long version = service.getSnapshot().version();
+        assertThrows(RuntimeException.class, () -> service.addCurrency("GBP"));
+        assertThrows(RuntimeException.class, () -> service.removeCurrency("EUR"));
+        assertThrows(RuntimeException.class, () -> service.refreshRates(null));
+        assertEquals(version, service.getSnapshot().version());
+        assertEquals(List.of("USD", "EUR"), service.getSnapshot().currencies());
+    }
+
+    @Test
+    void testCodesThatCannotBeLoggedAreNotPublished() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        open(service, Long.MAX_VALUE);
+
+        assertThrows(IllegalArgumentException.class, () -> service.addCurrency("X".repeat(256)));
+        assertThrows(IllegalArgumentException.class, () -> service.addCurrency("\u00C9CU"));
+        assertTrue(service.getSnapshot().currencies().isEmpty());
+
+        service.addCurrency("USD");
+        assertEquals(List.of("USD"), service.getSnapshot().currencies());
+    }
+
+    @Test
+    void testEntriesOnlyHoldWhatChanged() throws Exception {
+        ExchangeRateService service = new ExchangeRateService();
+        RateWriteAheadLog log = open(service, Long.MAX_VALUE);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            codes.add("C" + i);
+        }
+        service.addCurrencies(codes);
+
+        long before = log.size();
+        service.removeCurrency("C42");
+        // Header, versions and one code; no currency table or rates
+        assertTrue(log.size() - before < 48);
+
+        before = log.size();
+        service.addCurrency("NEW");
+        // One new row and column of 100 rates, 12 bytes each, and the codes they name
+        long entry = log.size() - before;
+        assertTrue(entry >= 200 * 12 && entry < 200 * 12 + 101 * 5 + 48);
+        log.shutdown();
+
+        ExchangeRateService after = new ExchangeRateService();
+        open(after, Long.MAX_VALUE);
+        assertEquals(service.getAllRates(), after.getAllRates());
+    }
+}
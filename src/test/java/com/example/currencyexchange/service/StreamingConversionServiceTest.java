@@ -0,0 +1,98 @@
+package com.example.currencyexchange.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingConversionServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StreamingConversionService streamingConversionService;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeRateService exchangeRateService = new ExchangeRateService();
+        CurrencyService currencyService = new CurrencyService(exchangeRateService);
+        ConversionService conversionService = new ConversionService(currencyService, exchangeRateService);
+        streamingConversionService = new StreamingConversionService(conversionService, exchangeRateService, objectMapper);
+
+        currencyService.addCurrency("USD");
+        currencyService.addCurrency("EUR");
+    }
+
+    private String[] convert(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        streamingConversionService.convertStream(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    void testConvertStreamWritesOneLinePerItem() throws Exception {
+        String[] lines = convert("{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}\r\n"
+                + "\n"
+                + "{\"amount\":1,\"from\":\"USD\",\"to\":\"GBP\"}\n"
+                + "{\"amount\":2,\"from\":\"EUR\",\"to\":\"USD\"}");
+
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("EUR", first.at("/result/toCurrency").asText());
+        assertEquals(404, objectMapper.readTree(lines[1]).at("/error/status").asInt());
+        assertEquals(2, objectMapper.readTree(lines[2]).at("/result/amount").asDouble());
+    }
+
+    @Test
+    void testMalformedAndOversizedLinesProduceErrors() throws Exception {
+        String oversized = "{\"amount\":1,\"from\":\"" + "A".repeat(StreamingConversionService.MAX_LINE_LENGTH) + "\"}";
+        String[] lines = convert("not json\n" + oversized + "\n{\"amount\":1,\"from\":\"USD\",\"to\":\"USD\"}\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("Malformed request line", objectMapper.readTree(lines[0]).at("/error/message").asText());
+        assertEquals(400, objectMapper.readTree(lines[1]).at("/error/status").asInt());
+        assertEquals(1, objectMapper.readTree(lines[2]).at("/result/convertedAmount").asDouble());
+    }
+
+    @Test
+    void testReactiveStreamMatchesTheBlockingOne() throws Exception {
+        String oversized = "{\"amount\":1,\"from\":\"" + "\u00e9".repeat(StreamingConversionService.MAX_LINE_LENGTH) + "\"}";
+        String input = "{\"amount\":100,\"from\":\"USD\",\"to\":\"EUR\"}\r\n"
+                + "not json\n"
+                + oversized + "\n\n"
+                + "{\"amount\":2,\"from\":\"EUR\",\"to\":\"USD\"}";
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+
+        // Chunks of seven bytes split lines and two-byte characters across buffers
+        DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> body = Flux.range(0, (bytes.length + 6) / 7)
+                .map(i -> factory.wrap(Arrays.copyOfRange(bytes, i * 7, Math.min(bytes.length, i * 7 + 7))));
+
+        List<String> reactive = streamingConversionService.convertStream(body)
+                .map(result -> {
+                    try {
+                        return objectMapper.writeValueAsString(result);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(Arrays.stream(convert(input)).map(String::trim).toList(), reactive);
+        assertEquals("Malformed request line", objectMapper.readTree(reactive.get(1)).at("/error/message").asText());
+        assertEquals(400, objectMapper.readTree(reactive.get(2)).at("/error/status").asInt());
+        assertEquals(2, objectMapper.readTree(reactive.get(3)).at("/result/amount").asDouble());
+    }
+}